@@ -0,0 +1,381 @@
+package minesweeper;
+
+import processing.core.*;
+
+/**
+ * draws a board with Processing -
+ * the only part of the board which needs a PApplet, so that the board itself can be played without a display
+ * <p>
+ * the board is seen through a camera which can be zoomed and panned, and only the cells in view are ever drawn.
+ * The view is kept drawn in an offscreen image, and only the cells which have been opened or flagged since the last
+ * frame are drawn again, every other frame just copies the image to the screen.
+ * <p>
+ * once cells are smaller than a few pixels, the view is instead drawn as an image with one pixel per screen pixel,
+ * each coloured by the cell beneath it, so that even boards of millions of cells can be looked at whole
+ */
+public class BoardRenderer implements BoardListener {
+
+    /**
+     * cells drawn smaller than this many pixels are drawn as single coloured pixels
+     */
+    private static final float DETAIL_SIZE = 4;
+    /**
+     * the largest a cell can be zoomed to, in pixels
+     */
+    private static final float MAX_CELL_SIZE = 64;
+    /**
+     * how much one step of the mouse wheel zooms by
+     */
+    private static final float ZOOM_STEP = 1.25f;
+    /**
+     * once this many cells are waiting to be drawn, the whole view is drawn again instead
+     */
+    private static final int MAX_DIRTY_CELLS = 1 << 14;
+
+    private PApplet p;
+    private Board board;
+    /**
+     * the size of the area of the window which the board is drawn in
+     */
+    private int width, height;
+
+    /**
+     * The size which the cells are drawn at, and the location on the screen of the corner of the first cell
+     */
+    private float cellSize;
+    private float offsetX, offsetY;
+    /**
+     * the smallest the cells can be zoomed out to, which fits the whole board in view
+     */
+    private float minCellSize;
+
+    /**
+     * The shared cells used to draw every safe cell and every bomb cell
+     */
+    private Cell safeCell, bombCell;
+
+    /**
+     * the view as it was last drawn, as cells or as pixels depending on the cell size
+     */
+    private PGraphics buffer;
+    private PImage pixels;
+    /**
+     * whether the camera has moved since the view was last drawn, so that all of it must be drawn again
+     */
+    private boolean viewChanged;
+    /**
+     * the cells which have changed since they were last drawn, with a bit per cell so each is queued once
+     */
+    private IntQueue dirtyCells;
+    private long[] dirty;
+
+    public BoardRenderer(PApplet p, Board board, int width, int height) {
+
+        this.p = p;
+        this.board = board;
+        this.width = width;
+        this.height = height;
+
+        /**
+         * Deciding the cell size which fits the whole board into the view
+         */
+        this.minCellSize = Math.min((float) width / Math.max(1, board.getRows()), (float) height / Math.max(1, board.getColumns()));
+        this.cellSize = minCellSize;
+        clampOffset();
+
+        this.safeCell = new SafeCell();
+        this.bombCell = new BombCell();
+
+        this.buffer = null;
+        this.pixels = null;
+        this.viewChanged = true;
+        this.dirtyCells = new IntQueue();
+        this.dirty = new long[(board.getState().size() + 63) / 64];
+
+        board.getState().addListener(this);
+    }
+
+    /**
+     * Displays the cells in view, first drawing any cells which have changed onto the offscreen image
+     */
+    public void display() {
+
+        if (cellSize < DETAIL_SIZE) {
+            displayPixels();
+        } else {
+            displayCells();
+        }
+
+        /**
+         * a full draw leaves behind any cells queued before it, which are already drawn
+         */
+        while (!dirtyCells.isEmpty()) {
+            nextDirty();
+        }
+
+        viewChanged = false;
+    }
+
+    private void displayCells() {
+
+        if (buffer == null) {
+            buffer = p.createGraphics(width, height);
+        }
+
+        BoardState state = board.getState();
+
+        buffer.beginDraw();
+
+        if (viewChanged) {
+
+            buffer.background(0);
+
+            for (int r = firstVisible(offsetX); r <= lastVisible(offsetX, width, board.getRows()); r++) {
+                for (int c = firstVisible(offsetY); c <= lastVisible(offsetY, height, board.getColumns()); c++) {
+                    displayCell(state, state.index(r, c));
+                }
+            }
+
+        } else {
+
+            while (!dirtyCells.isEmpty()) {
+
+                int i = nextDirty();
+                int r = i / board.getColumns();
+                int c = i % board.getColumns();
+
+                if (r >= firstVisible(offsetX) && r <= lastVisible(offsetX, width, board.getRows())
+                        && c >= firstVisible(offsetY) && c <= lastVisible(offsetY, height, board.getColumns())) {
+                    displayCell(state, i);
+                }
+            }
+        }
+
+        buffer.endDraw();
+
+        p.image(buffer, 0, 0);
+    }
+
+    private void displayCell(BoardState state, int i) {
+
+        int r = i / board.getColumns();
+        int c = i % board.getColumns();
+        Cell cell = state.isBomb(i) ? bombCell : safeCell;
+
+        cell.display(buffer, offsetX + r * cellSize, offsetY + c * cellSize, cellSize,
+                state.isOpened(i), state.isFlagged(i), state.getClue(i));
+    }
+
+    /**
+     * draws the view with one pixel per screen pixel, coloured by the cell under the middle of the pixel -
+     * every pixel when the camera has moved, otherwise only the pixels over cells which have changed
+     */
+    private void displayPixels() {
+
+        if (pixels == null) {
+            pixels = p.createImage(width, height, PApplet.RGB);
+        }
+
+        pixels.loadPixels();
+
+        if (viewChanged) {
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    pixels.pixels[y * width + x] = pixelColour(rowAt(x + 0.5f), columnAt(y + 0.5f));
+                }
+            }
+
+        } else {
+
+            while (!dirtyCells.isEmpty()) {
+
+                int i = nextDirty();
+                int r = i / board.getColumns();
+                int c = i % board.getColumns();
+
+                /**
+                 * the pixels whose middles fall within the cell, or the single pixel the cell falls within
+                 */
+                int fromX = Math.max(0, (int) Math.floor(offsetX + r * cellSize));
+                int toX = Math.min(width - 1, (int) Math.floor(offsetX + (r + 1) * cellSize));
+                int fromY = Math.max(0, (int) Math.floor(offsetY + c * cellSize));
+                int toY = Math.min(height - 1, (int) Math.floor(offsetY + (c + 1) * cellSize));
+
+                for (int y = fromY; y <= toY; y++) {
+                    for (int x = fromX; x <= toX; x++) {
+                        pixels.pixels[y * width + x] = pixelColour(rowAt(x + 0.5f), columnAt(y + 0.5f));
+                    }
+                }
+            }
+        }
+
+        pixels.updatePixels();
+
+        p.image(pixels, 0, 0);
+    }
+
+    /**
+     * @return the colour a cell is drawn with when it is too small to draw in detail, or black if it is off of the board
+     */
+    private int pixelColour(int r, int c) {
+
+        if (r == -1 || c == -1) {
+            return p.color(0);
+        }
+
+        BoardState state = board.getState();
+        int i = state.index(r, c);
+
+        if (state.isFlagged(i)) {
+            return p.color(255);
+        } else if (!state.isOpened(i)) {
+            return p.color(0, 255, 0);
+        } else if (state.isBomb(i)) {
+            return p.color(150, 0, 0);
+        } else {
+            return p.color(0, 150, 0);
+        }
+    }
+
+    public void cellOpened(int index) {
+        markDirty(index);
+    }
+
+    public void cellClosed(int index) {
+        markDirty(index);
+    }
+
+    public void cellFlagged(int index) {
+        markDirty(index);
+    }
+
+    /**
+     * the whole board has changed, so the whole view is drawn again
+     */
+    public void cellsRevealed(long[] opened, long[] unflagged) {
+        viewChanged = true;
+    }
+
+    private void markDirty(int index) {
+
+        if (viewChanged || (dirty[index >>> 6] & (1L << index)) != 0) {
+            return;
+        }
+
+        /**
+         * when a large part of the board changes at once, drawing the whole view is cheaper than queueing every cell
+         */
+        if (dirtyCells.size() >= MAX_DIRTY_CELLS) {
+            viewChanged = true;
+            return;
+        }
+
+        dirty[index >>> 6] |= 1L << index;
+        dirtyCells.add(index);
+    }
+
+    private int nextDirty() {
+
+        int index = dirtyCells.poll();
+        dirty[index >>> 6] &= ~(1L << index);
+
+        return index;
+    }
+
+    /**
+     * zooms the camera in or out, keeping the cell under the given location where it is
+     *
+     * @param x     the x location to zoom about
+     * @param y     the y location to zoom about
+     * @param steps how many steps to zoom by, positive to zoom out and negative to zoom in (as the mouse wheel counts)
+     */
+    public void zoom(float x, float y, int steps) {
+
+        float newSize = cellSize * (float) Math.pow(ZOOM_STEP, -steps);
+        newSize = Math.max(minCellSize, Math.min(Math.max(minCellSize, MAX_CELL_SIZE), newSize));
+
+        offsetX = x - (x - offsetX) * newSize / cellSize;
+        offsetY = y - (y - offsetY) * newSize / cellSize;
+        cellSize = newSize;
+
+        clampOffset();
+        viewChanged = true;
+    }
+
+    /**
+     * moves the camera by the given distance on the screen
+     *
+     * @param dx the distance to move the board to the right
+     * @param dy the distance to move the board down
+     */
+    public void pan(float dx, float dy) {
+
+        offsetX += dx;
+        offsetY += dy;
+
+        clampOffset();
+        viewChanged = true;
+    }
+
+    /**
+     * keeps the board filling the view, or centred in it when it is smaller than the view
+     */
+    private void clampOffset() {
+        offsetX = clamp(offsetX, width, board.getRows() * cellSize);
+        offsetY = clamp(offsetY, height, board.getColumns() * cellSize);
+    }
+
+    private float clamp(float offset, int view, float length) {
+
+        if (length <= view) {
+            return (view - length) / 2;
+        }
+
+        return Math.max(view - length, Math.min(0, offset));
+    }
+
+    private int firstVisible(float offset) {
+        return Math.max(0, (int) Math.floor(-offset / cellSize));
+    }
+
+    private int lastVisible(float offset, int view, int cells) {
+        return Math.min(cells - 1, (int) Math.floor((view - offset) / cellSize));
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * cells are laid out on a grid, so the cell at a location is found by undoing the camera's zoom and pan
+     * rather than by testing every cell
+     *
+     * @param x the x location on the screen
+     * @return the row drawn at that location, or -1 if it is off of the board
+     */
+    public int rowAt(float x) {
+        return x < 0 || x >= width ? -1 : cellAt(x - offsetX, board.getRows());
+    }
+
+    /**
+     * @param y the y location on the screen
+     * @return the column drawn at that location, or -1 if it is off of the board
+     * @see #rowAt(float)
+     */
+    public int columnAt(float y) {
+        return y < 0 || y >= height ? -1 : cellAt(y - offsetY, board.getColumns());
+    }
+
+    private int cellAt(float location, int cells) {
+
+        if (cellSize <= 0) {
+            return -1;
+        }
+
+        int cell = (int) Math.floor(location / cellSize);
+
+        return cell >= 0 && cell < cells ? cell : -1;
+    }
+
+}
@@ -0,0 +1,44 @@
+package minesweeper;
+
+import processing.core.*;
+
+public class BombCell extends Cell {
+
+    /**
+     * the alpha of a flag on a bomb cell, which is made lesser when a flagged bomb cell is opened
+     * to keep with the overall darkening of the board upon the game ending
+     */
+    private static final int FLAG_A = 255, OPENED_FLAG_A = 150;
+
+    public BombCell() {
+        super(0, 255, 0);
+    }
+
+    /**
+     * based on state variables of the cell, displays the cell appropriately
+     *
+     * @param graphics the graphics to draw the cell onto
+     * @param x        the x location to be displayed at
+     * @param y        the y location to be displayed at
+     * @param size     the size to be displayed at
+     * @param opened   whether the cell is opened
+     * @param flagged  whether the cell is flagged
+     * @param clue     unused, bomb cells have no clue
+     */
+    public void display(PGraphics graphics, float x, float y, float size, boolean opened, boolean flagged, int clue) {
+
+        if (opened) {
+            graphics.fill(150, 0, b);
+        } else {
+            graphics.fill(r, g, b);
+        }
+        graphics.rect(x, y, size, size);
+
+        if (flagged) {
+            graphics.fill(opened ? OPENED_FLAG_A : FLAG_A);
+            graphics.ellipseMode(PApplet.CENTER);
+            graphics.ellipse(x + size / 2, y + size / 2, size / 2, size / 2);
+        }
+
+    }
+}
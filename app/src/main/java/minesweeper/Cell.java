@@ -0,0 +1,24 @@
+package minesweeper;
+
+import processing.core.*;
+
+
+/**
+ * an abstract notion of how a cell is drawn, with variables and methods which apply to both bomb cells and safe cells
+ * <p>
+ * the state of the cells lives in the board's BoardState, so a single instance of each kind of cell
+ * is shared by every cell of that kind on the board, and it draws onto whichever graphics it is given
+ */
+public abstract class Cell {
+
+    protected int r, g, b;
+
+    public Cell(int r, int g, int b) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+    }
+
+    abstract void display(PGraphics graphics, float x, float y, float size, boolean opened, boolean flagged, int clue);
+
+}
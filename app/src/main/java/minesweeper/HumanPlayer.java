@@ -1,3 +1,5 @@
+package minesweeper;
+
 import processing.core.*;
 
 /**
@@ -9,10 +11,15 @@ public class HumanPlayer implements Player {
      * the Processing Applet required to track the user's input
      */
     private PApplet p;
+    /**
+     * the renderer which knows where each cell of the board is drawn
+     */
+    private BoardRenderer renderer;
 
-    public HumanPlayer(PApplet p) {
+    public HumanPlayer(PApplet p, BoardRenderer renderer) {
 
         this.p = p;
+        this.renderer = renderer;
     }
 
     /**
@@ -24,25 +31,10 @@ public class HumanPlayer implements Player {
      */
     public Turn getTurn(Board board) {
 
-        Cell chosenCell = null;
         int move = -1;
 
-        Cell[][] cells = board.getCells();
-        float x = p.mouseX;
-        float y = p.mouseY;
-        float cellSize = board.getCellSize();
-        for (int r = 0; r < cells.length; r++) {
-            for (int c = 0; c < cells[r].length; c++) {
-
-                if (x > (r * cellSize) && x < ((r * cellSize) + cellSize)) {
-                    if (y > (c * cellSize) && y < ((c * cellSize) + cellSize)) {
-
-                        chosenCell = cells[r][c];
-
-                    }
-                }
-            }
-        }
+        int chosenR = renderer.rowAt(p.mouseX);
+        int chosenC = renderer.columnAt(p.mouseY);
 
         if (p.mouseButton == PApplet.LEFT && p.keyPressed) {
             move = Turn.SWEEPING;
@@ -52,7 +44,7 @@ public class HumanPlayer implements Player {
             move = Turn.FLAGGING;
         }
 
-        return new Turn(chosenCell, move);
+        return new Turn(chosenR, chosenC, move);
 
     }
 
@@ -0,0 +1,69 @@
+package minesweeper;
+
+/*
+EXTRAS:
+
+-Implement the ability to pause the game:
+the screen goes black, user input is turned off (except to un-pause the game), and the timer is stopped
+*/
+
+import processing.core.*;
+import processing.event.MouseEvent;
+
+/**
+ * the main class, which is a PApplet subclass
+ * exists to run itself with the PApplet.main method, provide a reference of itself to the game,
+ * and call the MineSweeper run() and onMouseClick() methods
+ */
+public class Main extends PApplet {
+
+    /**
+     * the board the game starts on, which may be picked with GameConfig's flags
+     */
+    private static GameConfig config = new GameConfig(20, 20, 80, false);
+
+    private Minesweeper game;
+
+    public static void main(String[] args) {
+
+        try {
+            config = GameConfig.parse(args, config);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("usage: Main [--preset beginner|intermediate|expert] [--rows N] [--columns N]"
+                    + " [--bombs N | --density D] [--no-guess]");
+            return;
+        }
+
+        PApplet.main("minesweeper.Main");
+    }
+
+    public void settings() {
+        size(500, 550);
+        game = new Minesweeper(this, config);
+    }
+
+    public void setup() {
+        game.setup();
+    }
+
+    public void draw() {
+        game.run();
+    }
+
+    public void mouseClicked() {
+        game.onMouseClick();
+    }
+
+    public void keyPressed() {
+        game.onKeyPress();
+    }
+
+    public void mouseWheel(MouseEvent event) {
+        game.onMouseWheel(event.getCount());
+    }
+
+    public void mouseDragged() {
+        game.onMouseDrag();
+    }
+}
\ No newline at end of file
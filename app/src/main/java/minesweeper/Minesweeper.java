@@ -0,0 +1,431 @@
+package minesweeper;
+
+import processing.core.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class Minesweeper {
+
+    private Game game;
+    private BoardRenderer renderer;
+    private Player player;
+    private UndoHistory history;
+
+    private int secondsPlaying;
+
+    /**
+     * a helper variable which aids in calculating the secondsPlaying using the aggregate System time
+     */
+    private long timeDifference;
+
+    /**
+     * how long the last frames took to draw, in milliseconds, averaged so that the overlay can be read
+     */
+    private float frameMillis;
+
+    /**
+     * where the game is saved to and loaded from
+     */
+    private static final Path SAVE_PATH = Paths.get("minesweeper.save");
+    /**
+     * where the turns of the last new game are journaled to, so that it can be played back with Replay
+     */
+    private static final Path JOURNAL_PATH = Paths.get("minesweeper.journal");
+
+    private MoveJournal.Writer journal;
+
+    /**
+     * keeps layouts ready for the board, so the first click does not wait for its bombs to be placed
+     */
+    private BoardPool pool;
+
+    /**
+     * the board a new game is started on, and the one given when the sketch was started, to go back to
+     */
+    private GameConfig config;
+    private final GameConfig startingConfig;
+
+    private int gameScreen;
+    private final int START = 0, PLAY = 1, WIN = 2, LOSS = 3;
+
+    private PApplet p;
+
+    public Minesweeper(PApplet p, GameConfig config) {
+
+        this.game = null;
+        this.renderer = null;
+        this.player = null;
+
+        this.secondsPlaying = 0;
+        this.timeDifference = 0;
+
+        this.gameScreen = START;
+
+        this.pool = new BoardPool(4, 64L << 20, System.nanoTime());
+
+        this.startingConfig = config;
+        setConfig(config);
+
+        this.p = p;
+
+    }
+
+    /**
+     * ran once when the sketch starts, to set up the window
+     */
+    public void setup() {
+        p.getSurface().setTitle("Josh's Minesweeper");
+    }
+
+    /**
+     * The run method, which displays and manages all of the game content based on the value of gameScreens
+     * also, in the PLAY case, it maintains the timer
+     */
+    public void run() {
+
+        long frameStart = System.nanoTime();
+
+        p.background(0);
+
+        switch (gameScreen) {
+
+            case START:
+
+                p.fill(255);
+                p.textAlign(PApplet.CENTER, PApplet.CENTER);
+                p.textSize(20);
+
+                p.text("Welcome to Josh's Minesweeper!\nBoard: " + config +
+                                "\nPress 1, 2, 3 or 4 now to pick a board\nand G to toggle guessing\n\nINSTRUCTIONS:\n" +
+                                "LEFT CLICK to open a cell\nRIGHT CLICK to flag a cell" +
+                                "\nKEYPRESS while LEFT CLICKING to attempt a sweep\n\n" +
+                                "LEFT CLICK now to make these decisions yourself\nRIGHT CLICK now to have the AI make decisions" +
+                                "\n\nPress S while playing to save, and L now to load" +
+                                "\nPress Z to undo a turn, and Y to redo it",
+                        p.width / 2, p.height / 2);
+
+
+                break;
+
+            case PLAY:
+
+                if (game.getBoard().bombsSet()) {
+                    secondsPlaying = (int) ((System.currentTimeMillis() - timeDifference) / 1000);
+                }
+                renderer.display();
+
+                p.fill(255);
+
+                p.textSize(20);
+
+                p.textAlign(PApplet.LEFT, PApplet.CENTER);
+                p.text("Seconds Elapsed: " + secondsPlaying, 0, 525);
+
+                p.textAlign(PApplet.RIGHT, PApplet.CENTER);
+                p.text("Bombs to find: " + (game.getBoard().getNumBombs() - game.getBoard().numCellsFlagged()), p.width, 525);
+
+                break;
+
+            case WIN:
+
+                renderer.display();
+
+                p.fill(255);
+
+                p.textAlign(PApplet.LEFT, PApplet.CENTER);
+                p.text("You Played For: " + secondsPlaying + " Seconds", 0, 525);
+
+                p.textAlign(PApplet.RIGHT, PApplet.CENTER);
+                p.text("You Found: " + game.getBoard().getNumBombs() + " Bombs", p.width, 525);
+
+                p.textAlign(PApplet.CENTER, PApplet.CENTER);
+                p.textSize(60);
+                p.text("YOU WON!", p.width / 2, p.height / 2 - 25);
+                p.textSize(40);
+                p.text("CLICK TO RESTART", p.width / 2, p.height / 2 + 25);
+
+                break;
+
+            case LOSS:
+
+                renderer.display();
+
+                p.fill(255);
+
+                p.textAlign(PApplet.LEFT, PApplet.CENTER);
+                p.text("You Played For: " + secondsPlaying + " Seconds", 0, 525);
+
+                p.textAlign(PApplet.RIGHT, PApplet.CENTER);
+                p.text("Bombs left to find: " + (game.getBoard().getNumBombs() - game.getBoard().numCellsFlagged()), p.width, 525);
+
+                p.textAlign(PApplet.CENTER, PApplet.CENTER);
+                p.textSize(60);
+                p.text("YOU LOST!", p.width / 2, p.height / 2 - 25);
+                p.textSize(40);
+                p.text("CLICK TO RESTART", p.width / 2, p.height / 2 + 25);
+
+                break;
+
+        }
+
+        displayFrameTime(frameStart);
+    }
+
+    /**
+     * draws how long frames are taking to draw, in the bottom middle of the window
+     *
+     * @param frameStart the System.nanoTime() at which this frame started
+     */
+    private void displayFrameTime(long frameStart) {
+
+        float millis = (System.nanoTime() - frameStart) / 1e6f;
+        frameMillis = frameMillis * 0.9f + millis * 0.1f;
+
+        p.fill(150);
+        p.textSize(10);
+        p.textAlign(PApplet.CENTER, PApplet.BOTTOM);
+        p.text(PApplet.nf(frameMillis, 1, 2) + " ms per frame", p.width / 2, p.height);
+    }
+
+    /**
+     * ran every time the mouse is clicked, with varying operations based on the value of gameScreen
+     */
+    public void onMouseClick() {
+
+        switch (gameScreen) {
+
+            /**
+             * setting up the game with a user-decided player type, and a new board
+             */
+            case START:
+
+                game = new Game(config.newBoard(new SplittableRandom().nextLong()));
+                renderer = new BoardRenderer(p, game.getBoard(), p.width, p.height - 50);
+                history = new UndoHistory(game);
+                startJournal();
+
+                if (p.mouseButton == PApplet.LEFT) {
+                    player = new HumanPlayer(p, renderer);
+                } else if (p.mouseButton == PApplet.RIGHT) {
+                    player = new AIPlayer();
+                }
+
+                gameScreen = PLAY;
+
+                break;
+
+            case PLAY:
+
+                /**
+                 * a player turn will occur with every mouse click
+                 * (obviously, this turn will be very much based on the location
+                 * and buttons of the mouse if the player is a HumanPlayer)
+                 */
+                handlePlayerTurn();
+
+                break;
+
+            case WIN:
+
+                gameScreen = START;
+
+                break;
+
+            case LOSS:
+
+                gameScreen = START;
+
+                break;
+
+        }
+
+    }
+
+    /**
+     * ran every time a key is pressed, to save the game being played, or to load the saved game or pick the board
+     * from the start screen
+     */
+    public void onKeyPress() {
+
+        if (gameScreen == START && p.key >= '1' && p.key <= '4') {
+            GameConfig[] configs = {GameConfig.BEGINNER, GameConfig.INTERMEDIATE, GameConfig.EXPERT, startingConfig};
+            setConfig(configs[p.key - '1'].withNoGuess(config.isNoGuess()));
+        } else if (gameScreen == START && (p.key == 'g' || p.key == 'G')) {
+            setConfig(config.withNoGuess(!config.isNoGuess()));
+        } else if (gameScreen == PLAY && (p.key == 's' || p.key == 'S')) {
+            save();
+        } else if (gameScreen == START && (p.key == 'l' || p.key == 'L') && Files.exists(SAVE_PATH)) {
+            load();
+        } else if (gameScreen != START && (p.key == 'z' || p.key == 'Z')) {
+            undo();
+        } else if (gameScreen != START && (p.key == 'y' || p.key == 'Y')) {
+            redo();
+        }
+    }
+
+    /**
+     * picks the board for the next new game, and starts keeping layouts ready for it
+     */
+    private void setConfig(GameConfig config) {
+        this.config = config;
+        pool.register(config);
+    }
+
+    /**
+     * takes back the last turn, which takes a won or lost game back to being played
+     * the turn is cut off the journal too, so the journal always holds the turns which stand
+     */
+    private void undo() {
+
+        if (history.undo()) {
+
+            if (journal != null) {
+                journal.takeBack();
+            }
+
+            gameScreen = PLAY;
+        }
+    }
+
+    private void redo() {
+
+        if (history.redo()) {
+
+            if (journal != null) {
+                journal.putBack();
+            }
+
+            updateScreen();
+        }
+    }
+
+    private void save() {
+
+        long elapsedMillis = game.getBoard().bombsSet() ? System.currentTimeMillis() - timeDifference : 0;
+
+        try {
+            new SavedGame(game.getBoard(), elapsedMillis).write(SAVE_PATH);
+        } catch (IOException e) {
+            System.err.println("could not save the game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * resumes the saved game as a HumanPlayer, with the timer carrying on from where it was saved
+     */
+    private void load() {
+
+        SavedGame saved;
+
+        try {
+            saved = SavedGame.read(SAVE_PATH);
+        } catch (IOException e) {
+            System.err.println("could not load the game: " + e.getMessage());
+            return;
+        }
+
+        stopJournal();
+
+        game = new Game(saved.getBoard());
+        renderer = new BoardRenderer(p, game.getBoard(), p.width, p.height - 50);
+        history = new UndoHistory(game);
+        player = new HumanPlayer(p, renderer);
+
+        timeDifference = System.currentTimeMillis() - saved.getElapsedMillis();
+        secondsPlaying = (int) (saved.getElapsedMillis() / 1000);
+
+        gameScreen = PLAY;
+    }
+
+    /**
+     * ran every time the mouse wheel is turned, to zoom the board in or out about the mouse
+     *
+     * @param count how far the wheel turned, positive when turned towards the user
+     */
+    public void onMouseWheel(int count) {
+
+        if (renderer != null && gameScreen == PLAY) {
+            renderer.zoom(p.mouseX, p.mouseY, count);
+        }
+    }
+
+    /**
+     * ran every time the mouse is dragged, to pan the board along with the mouse
+     */
+    public void onMouseDrag() {
+
+        if (renderer != null && gameScreen == PLAY) {
+            renderer.pan(p.mouseX - p.pmouseX, p.mouseY - p.pmouseY);
+        }
+    }
+
+    /**
+     * a routine which lets the player take their turn on the game
+     * the first opened cell starts the game timer, and a won or lost game switches to the matching screen
+     */
+    private void handlePlayerTurn() {
+
+        Board board = game.getBoard();
+        boolean started = board.bombsSet();
+
+        Turn turn = player.getTurn(board);
+
+        /**
+         * the first cell opened takes its bombs from the pool, rather than having them placed while the frame waits
+         */
+        if (!started && turn != null && turn.getMove() == Turn.OPENING
+                && board.getState().inBounds(turn.getRow(), turn.getColumn()) && !board.isFlagged(turn.getRow(), turn.getColumn())) {
+            pool.placeBombs(board, turn.getRow(), turn.getColumn());
+        }
+
+        game.applyTurn(turn);
+
+        if (!started && board.bombsSet()) {
+            timeDifference = System.currentTimeMillis();
+        }
+
+        updateScreen();
+    }
+
+    private void updateScreen() {
+
+        if (game.isLost()) {
+            gameScreen = LOSS;
+        }
+        if (game.isWon()) {
+            gameScreen = WIN;
+        }
+    }
+
+    private void startJournal() {
+
+        stopJournal();
+
+        try {
+            journal = new MoveJournal.Writer(JOURNAL_PATH, game.getBoard());
+            game.addListener(journal);
+        } catch (IOException e) {
+            System.err.println("could not start the move journal: " + e.getMessage());
+        }
+    }
+
+    private void stopJournal() {
+
+        if (journal == null) {
+            return;
+        }
+
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("could not finish the move journal: " + e.getMessage());
+        }
+
+        journal = null;
+    }
+
+}
@@ -0,0 +1,48 @@
+package minesweeper;
+
+import processing.core.*;
+
+public class SafeCell extends Cell {
+
+    /**
+     * cells smaller than this are too small for their clue to be read, so it is not drawn
+     */
+    private static final float MIN_TEXT_SIZE = 8;
+
+    public SafeCell() {
+        super(0, 255, 0);
+    }
+
+    /**
+     * based on state variables of the cell, displays the cell appropriately
+     *
+     * @param graphics the graphics to draw the cell onto
+     * @param x        the x location to be displayed at
+     * @param y        the y location to be displayed at
+     * @param size     the size to be displayed at
+     * @param opened   whether the cell is opened
+     * @param flagged  whether the cell is flagged
+     * @param clue     the number of bombs adjacent to the cell
+     */
+    public void display(PGraphics graphics, float x, float y, float size, boolean opened, boolean flagged, int clue) {
+
+        graphics.fill(r, opened ? 150 : g, b);
+        graphics.rect(x, y, size, size);
+
+        if (flagged) {
+            graphics.fill(255);
+            graphics.ellipseMode(PApplet.CENTER);
+            graphics.ellipse(x + size / 2, y + size / 2, size / 2, size / 2);
+        } else if (opened && size >= MIN_TEXT_SIZE) {
+
+            /**
+             * the clue shrinks along with the cell once the board is zoomed out
+             */
+            graphics.fill(0);
+            graphics.textAlign(PApplet.CENTER);
+            graphics.textSize(Math.min(15, size * 0.6f));
+            graphics.text(clue, x + size / 2, y + size / 2);
+        }
+    }
+
+}
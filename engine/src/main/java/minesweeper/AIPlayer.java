@@ -0,0 +1,157 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+
+/**
+ * a player which uses artificial intelligence to formulate a Turn
+ * <p>
+ * it flags the bombs and opens the safe cells which its Solver deduces, and only once the solver is stuck
+ * does it guess, opening whichever cell its ProbabilityEngine finds least likely to be a bomb
+ */
+public class AIPlayer implements Player {
+
+    /**
+     * the solver following the board currently being played
+     */
+    private Solver solver;
+
+    /**
+     * works out the chances of each cell being a bomb when a guess is needed
+     */
+    private ProbabilityEngine probabilities;
+
+    /**
+     * decides between equally good interior cells, seeded so that a game played by the AI can be reproduced
+     */
+    private SplittableRandom random;
+
+    /**
+     * the amount of turns which were guesses rather than deductions
+     */
+    private int guesses;
+
+    public AIPlayer() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public AIPlayer(long seed) {
+        this(seed, 50);
+    }
+
+    /**
+     * @param seed             the seed for any random choices
+     * @param timeBudgetMillis how long the probabilities may take to count exactly before they are sampled instead
+     */
+    public AIPlayer(long seed, long timeBudgetMillis) {
+        this.random = new SplittableRandom(seed);
+        this.probabilities = new ProbabilityEngine(timeBudgetMillis, random.nextLong());
+        this.guesses = 0;
+    }
+
+    /**
+     * the AI's method of deciding on a Turn -
+     * the first cell opened is the middle of the board, after which any deduced bomb is flagged
+     * and any deduced safe cell is opened, and when nothing can be deduced the least likely bomb is opened
+     *
+     * @param board the board to be used to make decisions
+     * @return the turn decided on by the AI
+     */
+    public Turn getTurn(Board board) {
+
+        /**
+         * a board without bombs is new, or has had its first turn undone, so whatever was deduced no longer holds
+         */
+        if (!board.bombsSet()) {
+            if (solver != null) {
+                solver.detach();
+                solver = null;
+            }
+            return new Turn(board.getRows() / 2, board.getColumns() / 2, Turn.OPENING);
+        }
+
+        if (solver == null || solver.getBoard() != board) {
+            if (solver != null) {
+                solver.detach();
+            }
+            solver = new Solver(board);
+        }
+
+        do {
+
+            int bomb = solver.nextBombCell();
+            if (bomb != -1) {
+                return turnAt(board, bomb, Turn.FLAGGING);
+            }
+
+            int safe = solver.nextSafeCell();
+            if (safe != -1) {
+                return turnAt(board, safe, Turn.OPENING);
+            }
+
+        } while (solver.deduce());
+
+        probabilities.compute(board, solver);
+
+        int[] frontier = probabilities.getFrontier();
+        int safest = -1;
+        double lowest = probabilities.getInteriorCount() > 0 ? probabilities.getInteriorProbability() : 2;
+
+        for (int i = 0; i < frontier.length; i++) {
+            if (probabilities.getProbability(i) < lowest) {
+                lowest = probabilities.getProbability(i);
+                safest = frontier[i];
+            }
+        }
+
+        if (safest == -1) {
+            safest = interiorCell(board);
+        }
+
+        if (safest == -1) {
+            return null;
+        }
+
+        /**
+         * a cell with no chance of being a bomb was found by the probabilities rather than the solver, but isn't a guess
+         */
+        if (lowest > 0) {
+            guesses++;
+        }
+
+        return turnAt(board, safest, Turn.OPENING);
+    }
+
+    /**
+     * picks a random cell away from the frontier which the solver knows nothing about,
+     * by scanning forward from a random starting point, a word of the solver's bits at a time
+     *
+     * @param board the board being played
+     * @return the index of the chosen cell, or -1 if there is none
+     */
+    private int interiorCell(Board board) {
+
+        int start = random.nextInt(board.getState().size());
+        int i = solver.getFrontier().nextInterior(start);
+
+        return i != -1 ? i : solver.getFrontier().nextInterior(0);
+    }
+
+    /**
+     * makes the AI's guesses depend only on its seed, not on how fast the machine is,
+     * by giving the probabilities a budget of backtracking steps rather than of time
+     *
+     * @param steps the steps each guess may spend counting exactly
+     */
+    public void setStepBudget(long steps) {
+        probabilities.setStepBudget(steps);
+    }
+
+    private Turn turnAt(Board board, int index, int move) {
+        return new Turn(index / board.getColumns(), index % board.getColumns(), move);
+    }
+
+    public int getGuesses() {
+        return guesses;
+    }
+
+}
@@ -0,0 +1,257 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+
+/**
+ * plays large numbers of headless games to score a kind of Player, spread across every core
+ * <p>
+ * each game gets its own board and player, derived only from the batch's seed and the game's number,
+ * so the results of a batch are the same however many threads play it
+ * (as long as the players don't depend on timing - see AIPlayer.setStepBudget)
+ */
+public class BatchRunner {
+
+    /**
+     * how many games a task plays itself rather than splitting in two
+     */
+    private static final int GAMES_PER_TASK = 16;
+    /**
+     * the backtracking steps the AIPlayer may spend on each guess when run from the command line
+     */
+    private static final long AI_STEP_BUDGET = 1_000_000;
+
+    private ForkJoinPool pool;
+
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchRunner(int threads) {
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * plays a batch of games on boards of one size
+     *
+     * @param rows    the rows of each board
+     * @param columns the columns of each board
+     * @param bombs   the bombs on each board
+     * @param players makes the player for a game from a seed
+     * @param games   how many games to play
+     * @param seed    the seed which every game's board and player is derived from
+     * @return the totals for the batch
+     */
+    public Result run(int rows, int columns, int bombs, LongFunction<Player> players, int games, long seed) {
+        return run(new GameConfig(rows, columns, bombs, false), players, games, seed);
+    }
+
+    /**
+     * plays a batch of games on boards of one config
+     *
+     * @param config  the size, bombs and guessing of each board
+     * @param players makes the player for a game from a seed
+     * @param games   how many games to play
+     * @param seed    the seed which every game's board and player is derived from
+     * @return the totals for the batch
+     */
+    public Result run(GameConfig config, LongFunction<Player> players, int games, long seed) {
+
+        Result result = new Result(games);
+
+        long start = System.nanoTime();
+        pool.invoke(new Batch(config, players, seed, result, 0, games));
+        result.wallNanos = System.nanoTime() - start;
+
+        return result;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * plays one game until it is over, or until the player has nothing left to do
+     */
+    private static void play(GameConfig config, LongFunction<Player> players, long seed, Result result, int game) {
+
+        long start = System.nanoTime();
+
+        SplittableRandom random = new SplittableRandom(seed ^ (game * 0x9E3779B97F4A7C15L));
+
+        Game current = new Game(config.newBoard(random.nextLong()));
+        Player player = players.apply(random.nextLong());
+
+        while (!current.isOver()) {
+
+            Turn turn = player.getTurn(current.getBoard());
+
+            if (turn == null) {
+                break;
+            }
+
+            current.applyTurn(turn);
+        }
+
+        result.won[game] = current.isWon();
+        result.turns[game] = current.getTurnsPlayed();
+        result.guesses[game] = player instanceof AIPlayer ? ((AIPlayer) player).getGuesses() : 0;
+        result.nanos[game] = System.nanoTime() - start;
+    }
+
+    /**
+     * a range of games, split in half until it is small enough to play
+     */
+    @SuppressWarnings("serial")
+    private static class Batch extends RecursiveAction {
+
+        private GameConfig config;
+        private LongFunction<Player> players;
+        private long seed;
+        private Result result;
+        private int from, to;
+
+        private Batch(GameConfig config, LongFunction<Player> players, long seed, Result result, int from, int to) {
+            this.config = config;
+            this.players = players;
+            this.seed = seed;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= GAMES_PER_TASK) {
+                for (int game = from; game < to; game++) {
+                    play(config, players, seed, result, game);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new Batch(config, players, seed, result, from, middle),
+                    new Batch(config, players, seed, result, middle, to));
+        }
+    }
+
+    /**
+     * the outcome of every game in a batch, each game writing only to its own slot
+     */
+    public static class Result {
+
+        private boolean[] won;
+        private int[] turns, guesses;
+        private long[] nanos;
+        private long wallNanos;
+
+        private Result(int games) {
+            won = new boolean[games];
+            turns = new int[games];
+            guesses = new int[games];
+            nanos = new long[games];
+        }
+
+        public int getGames() {
+            return won.length;
+        }
+
+        public int getWins() {
+            int wins = 0;
+            for (boolean w : won) {
+                if (w) {
+                    wins++;
+                }
+            }
+            return wins;
+        }
+
+        public double getWinRate() {
+            return won.length == 0 ? 0 : (double) getWins() / won.length;
+        }
+
+        public double getMeanTurns() {
+            return mean(turns);
+        }
+
+        public double getMeanGuesses() {
+            return mean(guesses);
+        }
+
+        /**
+         * @return the mean time taken by a single game, in milliseconds
+         */
+        public double getMeanMillis() {
+            long total = 0;
+            for (long n : nanos) {
+                total += n;
+            }
+            return nanos.length == 0 ? 0 : total / 1e6 / nanos.length;
+        }
+
+        public double getWallMillis() {
+            return wallNanos / 1e6;
+        }
+
+        private double mean(int[] values) {
+            long total = 0;
+            for (int v : values) {
+                total += v;
+            }
+            return values.length == 0 ? 0 : (double) total / values.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games, %.2f%% won, %.1f turns, %.2f guesses, %.3f ms per game, %.0f ms in total",
+                    getGames(), getWinRate() * 100, getMeanTurns(), getMeanGuesses(), getMeanMillis(), getWallMillis());
+        }
+    }
+
+    /**
+     * plays a batch with the AIPlayer, on a board picked with GameConfig's flags
+     *
+     * @param args GameConfig's flags, and optionally --games, --seed and --threads
+     */
+    public static void main(String[] args) {
+
+        GameConfig config;
+        int games, threads;
+        long seed;
+
+        try {
+            config = GameConfig.parse(args, GameConfig.EXPERT, "--games", "--seed", "--threads");
+
+            String value = GameConfig.option(args, "--games");
+            games = value == null ? 1000 : Integer.parseInt(value);
+
+            value = GameConfig.option(args, "--seed");
+            seed = value == null ? 0 : Long.parseLong(value);
+
+            value = GameConfig.option(args, "--threads");
+            threads = value == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+
+            if (games < 0 || threads < 1) {
+                throw new IllegalArgumentException("invalid games or threads: " + games + ", " + threads);
+            }
+
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("usage: BatchRunner [--preset beginner|intermediate|expert] [--rows N] [--columns N]"
+                    + " [--bombs N | --density D] [--no-guess] [--games N] [--seed N] [--threads N]");
+            return;
+        }
+
+        BatchRunner runner = new BatchRunner(threads);
+        System.out.println(config + ": " + runner.run(config, playerSeed -> {
+            AIPlayer player = new AIPlayer(playerSeed);
+            player.setStepBudget(AI_STEP_BUDGET);
+            return player;
+        }, games, seed));
+        runner.shutdown();
+    }
+
+}
@@ -0,0 +1,443 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The board for the Minesweeper game -
+ * contains many methods for mutating and accessing information about the cells which it contains
+ * <p>
+ * The board knows nothing about drawing, so it can be played without a display - see BoardRenderer for that
+ */
+public class Board {
+
+    /**
+     * The packed state of every cell which makes up the board
+     */
+    private BoardState state;
+    /**
+     * Whether or not the bombs have been set on the board yet
+     */
+    private boolean bombsSet;
+    /**
+     * The amount of bombs the board contains
+     */
+    private int numBombs;
+    /**
+     * The seed which decides where the bombs are placed, so that any board can be reproduced
+     */
+    private long seed;
+    /**
+     * Whether the bombs are placed so that the board can be solved from the first click without guessing
+     */
+    private boolean noGuess;
+    /**
+     * Whether the bombs were placed from a given layout rather than from the seed,
+     * and the layout to place on the first click, if one has been given
+     */
+    private boolean fromLayout;
+    private long[] presetLayout;
+    /**
+     * The stack of cell indices still to be expanded by openSafeCell, kept between calls so it is only grown, never reallocated per click
+     */
+    private int[] fillStack = new int[64];
+
+    public Board(int rows, int columns, int numBombs) {
+        this(rows, columns, numBombs, new SplittableRandom().nextLong());
+    }
+
+    public Board(int rows, int columns, int numBombs, long seed) {
+
+        /**
+         * Initially all of the cells are safe
+         */
+        this(new BoardState(rows, columns), numBombs, seed, false, false);
+    }
+
+    /**
+     * @param noGuess whether the bombs should be placed so that the board can be solved without guessing,
+     *                see NoGuessGenerator
+     */
+    public Board(int rows, int columns, int numBombs, long seed, boolean noGuess) {
+        this(new BoardState(rows, columns), numBombs, seed, false, noGuess);
+    }
+
+    /**
+     * wraps a board's cells which already exist, such as ones read back from a save
+     *
+     * @param state    the cells
+     * @param numBombs the amount of bombs the board contains
+     * @param seed     the seed the bombs were, or will be, placed with
+     * @param bombsSet whether the bombs have been placed in the cells yet
+     * @param noGuess  whether the bombs are, or will be, placed so that the board can be solved without guessing
+     */
+    Board(BoardState state, int numBombs, long seed, boolean bombsSet, boolean noGuess) {
+
+        this.state = state;
+
+        this.bombsSet = bombsSet;
+        this.numBombs = numBombs;
+        this.seed = seed;
+        this.noGuess = noGuess;
+    }
+
+    /**
+     * Used when the game ends
+     * Un-flags and opens all safe cells so that their clue can be seen
+     * and opens all bomb cells to reveal their locations
+     * (in parallel stripes on a large board, see BoardState.revealAll)
+     */
+    public void revealEverything() {
+        state.revealAll();
+    }
+
+    public BoardState getState() {
+        return state;
+    }
+
+    public int getRows() {
+        return state.getRows();
+    }
+
+    public int getColumns() {
+        return state.getColumns();
+    }
+
+    public boolean isBomb(int r, int c) {
+        return state.isBomb(state.index(r, c));
+    }
+
+    public boolean isOpened(int r, int c) {
+        return state.isOpened(state.index(r, c));
+    }
+
+    public boolean isFlagged(int r, int c) {
+        return state.isFlagged(state.index(r, c));
+    }
+
+    public int getClue(int r, int c) {
+        return state.getClue(state.index(r, c));
+    }
+
+    public void open(int r, int c) {
+        state.open(state.index(r, c));
+    }
+
+    public void flag(int r, int c) {
+        state.flag(state.index(r, c));
+    }
+
+    public int getNumBombs() {
+        return numBombs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int numCellsFlagged() {
+        return state.getNumFlagged();
+    }
+
+    /**
+     * takes every bomb back off of the board, as if the first cell had never been opened
+     */
+    void removeBombs() {
+
+        for (int i = 0; i < state.size(); i++) {
+            state.clearBomb(i);
+        }
+
+        bombsSet = false;
+        fromLayout = false;
+    }
+
+    /**
+     * Randomly places bombs, knowing the location of the initially clicked bomb,
+     * so the algorithm will not place bombs adjacent to or on top of that cell
+     * <p>
+     * bombs are chosen with Floyd's sampling over the cells outside of that 3x3 area,
+     * so placement always takes one random number per bomb however dense the board is,
+     * and the same seed and first click always give the same board
+     *
+     * @param r the selected row
+     * @param c the selected column
+     */
+    public void placeBombs(int r, int c) {
+
+        if (presetLayout != null) {
+            placeBombs(presetLayout);
+            return;
+        }
+
+        /**
+         * a board without guesses is found by the generator, which starts from this same random placement -
+         * if it gives up, the board falls back to that random placement, and is no longer one without guesses,
+         * so that it is not saved or journaled as one
+         */
+        if (noGuess) {
+
+            long[] layout = NoGuessGenerator.layout(getRows(), getColumns(), numBombs, seed, r, c);
+
+            if (layout != null) {
+                setBombs(layout);
+                return;
+            }
+
+            noGuess = false;
+        }
+
+        /**
+         * the cells around the first click, in ascending order of index
+         */
+        int[] safeZone = new int[9];
+        int safeZoneSize = 0;
+
+        for (int newR = r - 1; newR <= r + 1; newR++) {
+            for (int newC = c - 1; newC <= c + 1; newC++) {
+                if (state.inBounds(newR, newC)) {
+                    safeZone[safeZoneSize++] = state.index(newR, newC);
+                }
+            }
+        }
+
+        int eligible = state.size() - safeZoneSize;
+
+        if (numBombs < 0 || numBombs > eligible) {
+            throw new IllegalArgumentException(numBombs + " bombs do not fit outside of the first click's area");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int j = eligible - numBombs; j < eligible; j++) {
+
+            int cell = eligibleCell(random.nextInt(j + 1), safeZone, safeZoneSize);
+
+            if (state.isBomb(cell)) {
+                cell = eligibleCell(j, safeZone, safeZoneSize);
+            }
+
+            state.setBomb(cell);
+        }
+
+        bombsSet = true;
+    }
+
+    /**
+     * places bombs exactly where a layout says
+     *
+     * @param bombs the bitmap of bombs, as packed by BoardState.toBitmap
+     */
+    void placeBombs(long[] bombs) {
+        setBombs(bombs);
+        fromLayout = true;
+    }
+
+    private void setBombs(long[] bombs) {
+
+        for (int word = 0; word < bombs.length; word++) {
+            for (long bits = bombs[word]; bits != 0; bits &= bits - 1) {
+                state.setBomb(word << 6 | Long.numberOfTrailingZeros(bits));
+            }
+        }
+
+        bombsSet = true;
+    }
+
+    /**
+     * gives the layout which the first click will place, instead of placing bombs from the seed
+     *
+     * @param bombs the bitmap of bombs, as packed by BoardState.toBitmap
+     */
+    void presetLayout(long[] bombs) {
+        this.presetLayout = bombs;
+    }
+
+    /**
+     * Maps a position among the cells which may hold a bomb to the index of that cell on the board,
+     * by stepping over each cell of the safe zone which comes before it
+     *
+     * @param position     the position among the eligible cells
+     * @param safeZone     the indices of the cells which may not hold a bomb, in ascending order
+     * @param safeZoneSize the amount of indices in the safe zone
+     * @return the index of the cell on the board
+     */
+    private int eligibleCell(int position, int[] safeZone, int safeZoneSize) {
+
+        int index = position;
+
+        for (int i = 0; i < safeZoneSize; i++) {
+            if (safeZone[i] <= index) {
+                index++;
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * @return whether the bombs were placed from a layout, such as one from a BoardPool,
+     * in which case they cannot be placed again from the seed alone
+     */
+    public boolean isFromLayout() {
+        return fromLayout;
+    }
+
+    /**
+     * @return whether the board can be solved without guessing - or, before its bombs are placed, whether it will be
+     * if the generator finds a layout, which it almost always does
+     */
+    public boolean isNoGuess() {
+        return noGuess;
+    }
+
+    public boolean bombsSet() {
+        return bombsSet;
+    }
+
+    /**
+     * An algorithm which runs upon the clicking of a safe cell and opens the cell
+     * and in the case of a zero clue cell, goes on to open all adjacent cells in the same way
+     * <p>
+     * the region is filled iteratively with an explicit stack rather than by recursion,
+     * so large empty regions cannot overflow the call stack
+     *
+     * @param r row of the cell
+     * @param c column of the cell
+     */
+    public void openSafeCell(int r, int c) {
+
+        int i = state.index(r, c);
+
+        if (state.isBomb(i) || state.isFlagged(i)) {
+            return;
+        }
+
+        state.open(i);
+
+        int size = 0;
+        fillStack[size++] = i;
+
+        while (size > 0) {
+
+            int cell = fillStack[--size];
+
+            if (state.getClue(cell) != 0) {
+                continue;
+            }
+
+            int cellR = cell / getColumns();
+            int cellC = cell % getColumns();
+
+            for (int newR = cellR - 1; newR <= cellR + 1; newR++) {
+                for (int newC = cellC - 1; newC <= cellC + 1; newC++) {
+
+                    if (newR >= 0 && newR < getRows()) {
+                        if (newC >= 0 && newC < getColumns()) {
+
+                            int newI = state.index(newR, newC);
+
+                            if (!state.isOpened(newI) && !state.isBomb(newI) && !state.isFlagged(newI)) {
+
+                                state.open(newI);
+
+                                if (size == fillStack.length) {
+                                    fillStack = Arrays.copyOf(fillStack, size * 2);
+                                }
+                                fillStack[size++] = newI;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A fancy boolean which is used to check if the player has successfully opened all cells but bombs
+     * (answered from the running counts in the board state, rather than by checking every cell)
+     *
+     * @return if all but bombs are opened
+     */
+    public boolean allButBombsOpened() {
+
+        boolean allSafeOpened = state.getNumOpenedSafe() == state.size() - state.getNumBombs();
+        boolean allBombsClosed = state.getNumOpenedBombs() == 0;
+
+        return allSafeOpened && allBombsClosed;
+
+    }
+
+    /**
+     * checks for any bomb being opened, which would trigger losing the game
+     *
+     * @return if any bomb is opened
+     */
+    public boolean anyBombOpened() {
+        return state.getNumOpenedBombs() > 0;
+    }
+
+    /**
+     * the amount of cells which are bombs adjacent to any row and column,
+     * read from the clues the board state keeps as bombs are placed
+     *
+     * @param r the row
+     * @param c the column
+     * @return the number of adjacent bombs
+     */
+    public int getNumBombsAdjacent(int r, int c) {
+        return state.getClue(state.index(r, c));
+    }
+
+    /**
+     * calculates the amount of cells which are flagged adjacent to any row and column,
+     * looping over only the neighbours inside the board rather than checking each of the nine
+     *
+     * @param r the row
+     * @param c the column
+     * @return the number of adjacent flagged cells
+     */
+    public int getNumFlagsAdjacent(int r, int c) {
+
+        int flags = 0;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, getColumns() - 1); newC++) {
+                if ((newR != r || newC != c) && state.isFlagged(state.index(newR, newC))) {
+                    flags++;
+                }
+            }
+        }
+
+        return flags;
+    }
+
+    /**
+     * Opens all adjacent safe cells using the safeCellOpened method and opens all adjacent bomb cells
+     * @param r the row
+     * @param c the column
+     */
+    public void sweep(int r, int c) {
+
+        for (int newR = r - 1; newR <= r + 1; newR++) {
+            for (int newC = c - 1; newC <= c + 1; newC++) {
+
+                if (newR >= 0 && newR < getRows()) {
+                    if (newC >= 0 && newC < getColumns()) {
+
+                        if (!(newR == r && newC == c)) {
+
+                            if (!isBomb(newR, newC)) {
+                                openSafeCell(newR, newC);
+                            } else if (!isFlagged(newR, newC)) {
+                                open(newR, newC);
+                            }
+
+                        }
+                    }
+                }
+            }
+        }
+
+    }
+}
\ No newline at end of file
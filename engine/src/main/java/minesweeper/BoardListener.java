@@ -0,0 +1,54 @@
+package minesweeper;
+
+/**
+ * an interface for anything which needs to follow the changes made to a board's cells as they happen,
+ * rather than looking over the whole board to find them
+ */
+interface BoardListener {
+
+    /**
+     * called after a closed cell is opened
+     *
+     * @param index the index of the cell
+     */
+    void cellOpened(int index);
+
+    /**
+     * called after an opened cell is closed again, which only happens when a turn is undone
+     *
+     * @param index the index of the cell
+     */
+    default void cellClosed(int index) {
+    }
+
+    /**
+     * called after a cell is flagged or un-flagged
+     *
+     * @param index the index of the cell
+     */
+    default void cellFlagged(int index) {
+    }
+
+    /**
+     * called once after every cell has been revealed at the end of a game, instead of once for each cell changed -
+     * by default, each change is passed on as if it had been told one at a time
+     *
+     * @param opened    the bitmap of cells which were opened, as packed by BoardState.toBitmap
+     * @param unflagged the bitmap of cells whose flag was taken off
+     */
+    default void cellsRevealed(long[] opened, long[] unflagged) {
+
+        for (int word = 0; word < unflagged.length; word++) {
+            for (long bits = unflagged[word]; bits != 0; bits &= bits - 1) {
+                cellFlagged(word << 6 | Long.numberOfTrailingZeros(bits));
+            }
+        }
+
+        for (int word = 0; word < opened.length; word++) {
+            for (long bits = opened[word]; bits != 0; bits &= bits - 1) {
+                cellOpened(word << 6 | Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,394 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * keeps layouts of bombs ready ahead of time, so that a first click never waits for bombs to be placed -
+ * which matters once placing them is slow, for huge boards or boards without guesses
+ * <p>
+ * each kind of board (its rows, columns, bombs and whether it is without guesses) which is registered gets a bounded
+ * queue of layouts, kept full by its own background producer. Producers run on virtual threads where the JDK has
+ * them, and on daemon platform threads where it does not.
+ * <p>
+ * a layout is made around a first click, and remembers the area which that click opens.
+ * A random layout is made around the middle of the board, and moved so that the middle lands on the real first click -
+ * as long as the 3x3 area around the real click is on the board, so that moving the layout, which wraps it around
+ * the edges, gives the same chances as placing its bombs around that click. A click on the edge of the board misses.
+ * <p>
+ * a layout without guesses cannot be moved without losing that guarantee, so one is only used if the first click
+ * lands in the area it opens, where the click opens exactly the same cells. These are made around a random first
+ * click each, and whenever a first click fits none of them the oldest is dropped, so that the producer keeps making
+ * new ones rather than the queue filling up with layouts which are never taken.
+ * <p>
+ * the layouts held by every kind of board together are kept under a memory cap
+ */
+public class BoardPool {
+
+    private final int layoutsPerBoard;
+    private final long maxBytes;
+
+    private final Map<GameConfig, Queue> queues;
+    private final List<Thread> producers;
+
+    /**
+     * the bytes held by layouts in every queue, or reserved for layouts being made
+     */
+    private final ReentrantLock lock;
+    private final Condition space;
+    private long bytesHeld;
+
+    private final AtomicLong hits, misses;
+    private final AtomicLong seeds;
+    private volatile boolean running;
+
+    /**
+     * @param layoutsPerBoard how many layouts are kept ready for each kind of board
+     * @param maxBytes        how much memory the layouts of every kind of board may take up together
+     * @param seed            the seed which every layout's seed is derived from
+     */
+    public BoardPool(int layoutsPerBoard, long maxBytes, long seed) {
+
+        if (layoutsPerBoard < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("the pool must hold something: " + layoutsPerBoard + ", " + maxBytes);
+        }
+
+        this.layoutsPerBoard = layoutsPerBoard;
+        this.maxBytes = maxBytes;
+
+        this.queues = new ConcurrentHashMap<>();
+        this.producers = new ArrayList<>();
+
+        this.lock = new ReentrantLock();
+        this.space = lock.newCondition();
+
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.seeds = new AtomicLong(seed);
+        this.running = true;
+    }
+
+    /**
+     * starts keeping layouts ready for a kind of board, if they are not already
+     *
+     * @param rows     the rows of the board
+     * @param columns  the columns of the board
+     * @param numBombs the bombs on the board
+     * @param noGuess  whether the board can be solved without guessing
+     */
+    public void register(int rows, int columns, int numBombs, boolean noGuess) {
+        register(new GameConfig(rows, columns, numBombs, noGuess));
+    }
+
+    /**
+     * starts keeping layouts ready for a kind of board, if they are not already
+     */
+    public void register(GameConfig config) {
+
+        synchronized (producers) {
+
+            if (!running || queues.containsKey(config)) {
+                return;
+            }
+
+            Queue queue = new Queue(config, layoutsPerBoard);
+            queues.put(config, queue);
+
+            Thread producer = Threads.newThread("board-pool", () -> produce(queue));
+            producers.add(producer);
+            producer.start();
+        }
+    }
+
+    /**
+     * places the bombs of a board for its first click, from a ready layout if there is one which fits,
+     * otherwise the usual way on the calling thread
+     *
+     * @param board the board, without its bombs placed
+     * @param r     the row of the first click
+     * @param c     the column of the first click
+     */
+    public void placeBombs(Board board, int r, int c) {
+
+        /**
+         * a board made with more bombs than any config allows, which only fit around a click in its corner, is never pooled
+         */
+        Queue queue = board.getNumBombs() > GameConfig.maxBombs(board.getRows(), board.getColumns()) ? null
+                : queues.get(new GameConfig(board.getRows(), board.getColumns(), board.getNumBombs(), board.isNoGuess()));
+        long[] bombs = queue == null ? null : queue.take(r, c);
+
+        if (bombs == null) {
+            misses.incrementAndGet();
+            board.placeBombs(r, c);
+        } else {
+            hits.incrementAndGet();
+            board.placeBombs(bombs);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return how many bytes the ready layouts take up
+     */
+    public long getBytesHeld() {
+
+        lock.lock();
+        try {
+            return bytesHeld;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how many layouts are ready for a kind of board
+     */
+    public int getReady(int rows, int columns, int numBombs, boolean noGuess) {
+        Queue queue = queues.get(new GameConfig(rows, columns, numBombs, noGuess));
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * stops every producer, leaving the layouts already made to be taken
+     */
+    public void shutdown() {
+
+        synchronized (producers) {
+
+            running = false;
+
+            for (Thread producer : producers) {
+                producer.interrupt();
+            }
+        }
+    }
+
+    /**
+     * keeps one kind of board's queue full, waiting whenever the queue or the pool's memory is full
+     */
+    private void produce(Queue queue) {
+
+        long bytes = Layout.bytes(queue.config.getRows() * queue.config.getColumns());
+
+        try {
+            while (running) {
+
+                queue.slots.acquire();
+                reserve(bytes);
+
+                Layout layout = Layout.make(queue.config, seeds.getAndAdd(0x9E3779B97F4A7C15L));
+
+                if (layout == null) {
+                    release(bytes);
+                    queue.slots.release();
+                } else {
+                    queue.layouts.add(layout);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reserve(long bytes) throws InterruptedException {
+
+        lock.lock();
+        try {
+            while (bytesHeld + bytes > maxBytes) {
+                space.await();
+            }
+            bytesHeld += bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long bytes) {
+
+        lock.lock();
+        try {
+            bytesHeld -= bytes;
+            space.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * the ready layouts for one kind of board, with a permit for each free place in it
+     */
+    private class Queue {
+
+        private final GameConfig config;
+        private final ConcurrentLinkedQueue<Layout> layouts;
+        private final Semaphore slots;
+
+        Queue(GameConfig config, int capacity) {
+            this.config = config;
+            this.layouts = new ConcurrentLinkedQueue<>();
+            this.slots = new Semaphore(capacity);
+        }
+
+        int size() {
+            return layouts.size();
+        }
+
+        /**
+         * @return the bombs of a ready layout which fits a first click, moved onto it if need be, or null if none fits
+         */
+        long[] take(int r, int c) {
+
+            for (Iterator<Layout> it = layouts.iterator(); it.hasNext(); ) {
+
+                Layout layout = it.next();
+                long[] bombs = layout.placedAt(r, c);
+
+                if (bombs != null && layouts.remove(layout)) {
+                    free();
+                    return bombs;
+                }
+            }
+
+            /**
+             * a layout without guesses only fits clicks in its own opening, so the oldest is made room for a new one
+             */
+            if (config.isNoGuess() && layouts.poll() != null) {
+                free();
+            }
+
+            return null;
+        }
+
+        /**
+         * gives back the memory and the place of a layout which has left the queue
+         */
+        private void free() {
+            release(Layout.bytes(config.getRows() * config.getColumns()));
+            slots.release();
+        }
+    }
+
+    /**
+     * where the bombs go on one board, made around a first click - in its middle, or anywhere for a board without
+     * guesses - and the area that first click opens, every cell reached from it through cells without bombs around them
+     */
+    static class Layout {
+
+        private final GameConfig config;
+        private final int originR, originC;
+        private final long[] bombs, opening;
+
+        private Layout(GameConfig config, int originR, int originC, long[] bombs, long[] opening) {
+            this.config = config;
+            this.originR = originR;
+            this.originC = originC;
+            this.bombs = bombs;
+            this.opening = opening;
+        }
+
+        static long bytes(int cells) {
+            return 2L * ((cells + 63) >>> 6) * 8 + 64;
+        }
+
+        /**
+         * @return the layout, or null if no layout without guesses was found
+         */
+        static Layout make(GameConfig config, long seed) {
+
+            int originR = config.getRows() / 2;
+            int originC = config.getColumns() / 2;
+
+            Board board = new Board(config.getRows(), config.getColumns(), config.getNumBombs(), seed);
+
+            /**
+             * a board without guesses falls back to a random layout if the generator gives up, which must not be pooled
+             */
+            if (config.isNoGuess()) {
+
+                SplittableRandom random = new SplittableRandom(seed);
+                originR = random.nextInt(config.getRows());
+                originC = random.nextInt(config.getColumns());
+
+                long[] layout = NoGuessGenerator.layout(config.getRows(), config.getColumns(), config.getNumBombs(), seed, originR, originC);
+
+                if (layout == null) {
+                    return null;
+                }
+
+                board.placeBombs(layout);
+
+            } else {
+                board.placeBombs(originR, originC);
+            }
+
+            board.openSafeCell(originR, originC);
+
+            BoardState state = board.getState();
+            long[] opening = new long[(state.size() + 63) >>> 6];
+
+            for (int i = 0; i < state.size(); i++) {
+                if (state.isOpened(i) && state.getClue(i) == 0) {
+                    opening[i >>> 6] |= 1L << i;
+                }
+            }
+
+            return new Layout(config, originR, originC, state.toBitmap(BoardState.BOMB), opening);
+        }
+
+        /**
+         * @return the bombs placed so that the first click is safe, or null if this layout cannot be used for it
+         */
+        long[] placedAt(int r, int c) {
+
+            int index = r * config.getColumns() + c;
+
+            if ((opening[index >>> 6] & (1L << index)) != 0) {
+                return bombs;
+            }
+
+            /**
+             * the layout wraps around the edges as it is moved, so the cells wrapped past the edge from the middle's
+             * 3x3 area would never hold a bomb if the click's 3x3 area went off the board - and a small board has no
+             * middle with a whole 3x3 area around it at all
+             */
+            if (config.isNoGuess() || r < 1 || r > config.getRows() - 2 || c < 1 || c > config.getColumns() - 2) {
+                return null;
+            }
+
+            long[] moved = new long[bombs.length];
+            int dr = r - originR;
+            int dc = c - originC;
+
+            for (int word = 0; word < bombs.length; word++) {
+                for (long bits = bombs[word]; bits != 0; bits &= bits - 1) {
+
+                    int i = word << 6 | Long.numberOfTrailingZeros(bits);
+                    int newR = Math.floorMod(i / config.getColumns() + dr, config.getRows());
+                    int newC = Math.floorMod(i % config.getColumns() + dc, config.getColumns());
+                    int newI = newR * config.getColumns() + newC;
+
+                    moved[newI >>> 6] |= 1L << newI;
+                }
+            }
+
+            return moved;
+        }
+    }
+
+}
@@ -0,0 +1,441 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * the headless core of a board -
+ * stores the state of every cell packed into a single byte, indexed by r * columns + c,
+ * so that boards with millions of cells do not need an object per cell
+ * <p>
+ * the low four bits of a cell hold its clue, the remaining bits hold whether it is a bomb, opened or flagged
+ * <p>
+ * clues are kept up to date as bombs are placed or removed, by stamping +1 or -1 onto the eight surrounding cells,
+ * so reading a clue never needs to look at the neighbours
+ */
+public class BoardState {
+
+    static final int CLUE = 0x0F;
+    static final int BOMB = 0x10;
+    static final int OPENED = 0x20;
+    static final int FLAGGED = 0x40;
+
+    /**
+     * reads eight cells at once, the first in the lowest byte
+     */
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final int rows;
+    private final int columns;
+
+    /**
+     * one byte per cell, laid out row by row
+     */
+    private final byte[] cells;
+
+    /**
+     * running counts kept up to date by every mutation, so that game state queries never scan the cells
+     */
+    private int numBombs, numOpenedSafe, numOpenedBombs, numFlagged;
+
+    /**
+     * everything which is told about cells being opened or flagged
+     */
+    private BoardListener[] listeners = new BoardListener[0];
+
+    public BoardState(int rows, int columns) {
+
+        if (rows < 0 || columns < 0 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid board dimensions: " + rows + "x" + columns);
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.cells = new byte[rows * columns];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int size() {
+        return cells.length;
+    }
+
+    public int index(int r, int c) {
+        return r * columns + c;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < columns;
+    }
+
+    /**
+     * the raw packed state of a cell, for callers which need several bits at once
+     *
+     * @param index the index of the cell
+     * @return the packed state
+     */
+    public int get(int index) {
+        return cells[index];
+    }
+
+    public boolean isBomb(int index) {
+        return (cells[index] & BOMB) != 0;
+    }
+
+    public boolean isOpened(int index) {
+        return (cells[index] & OPENED) != 0;
+    }
+
+    public boolean isFlagged(int index) {
+        return (cells[index] & FLAGGED) != 0;
+    }
+
+    public int getClue(int index) {
+        return cells[index] & CLUE;
+    }
+
+    public int getNumBombs() {
+        return numBombs;
+    }
+
+    public int getNumOpenedSafe() {
+        return numOpenedSafe;
+    }
+
+    public int getNumOpenedBombs() {
+        return numOpenedBombs;
+    }
+
+    public int getNumFlagged() {
+        return numFlagged;
+    }
+
+    public void setBomb(int index) {
+
+        if (isBomb(index)) {
+            return;
+        }
+
+        cells[index] |= BOMB;
+        numBombs++;
+
+        if (isOpened(index)) {
+            numOpenedSafe--;
+            numOpenedBombs++;
+        }
+
+        stampNeighbours(index, 1);
+    }
+
+    public void clearBomb(int index) {
+
+        if (!isBomb(index)) {
+            return;
+        }
+
+        cells[index] &= ~BOMB;
+        numBombs--;
+
+        if (isOpened(index)) {
+            numOpenedBombs--;
+            numOpenedSafe++;
+        }
+
+        stampNeighbours(index, -1);
+    }
+
+    /**
+     * moves a bomb from one cell to another, updating only the clues around the two cells
+     *
+     * @param from the index of the bomb
+     * @param to   the index of the cell the bomb is moved to
+     */
+    public void moveBomb(int from, int to) {
+
+        if (!isBomb(from) || isBomb(to)) {
+            throw new IllegalArgumentException("can only move a bomb onto a cell without one");
+        }
+
+        clearBomb(from);
+        setBomb(to);
+    }
+
+    /**
+     * adds the given amount to the clue of each of the (up to eight) cells surrounding a cell
+     *
+     * @param index  the index of the cell
+     * @param amount the amount to add, +1 when a bomb is placed and -1 when one is removed
+     */
+    private void stampNeighbours(int index, int amount) {
+
+        int r = index / columns;
+        int c = index % columns;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int newI = index(newR, newC);
+
+                if (newI != index) {
+                    cells[newI] += amount;
+                }
+            }
+        }
+    }
+
+    public void open(int index) {
+
+        if (isOpened(index)) {
+            return;
+        }
+
+        cells[index] |= OPENED;
+
+        if (isBomb(index)) {
+            numOpenedBombs++;
+        } else {
+            numOpenedSafe++;
+        }
+
+        for (BoardListener listener : listeners) {
+            listener.cellOpened(index);
+        }
+    }
+
+    /**
+     * closes an opened cell again, for taking back a turn
+     *
+     * @param index the index of the cell
+     */
+    public void close(int index) {
+
+        if (!isOpened(index)) {
+            return;
+        }
+
+        cells[index] &= ~OPENED;
+
+        if (isBomb(index)) {
+            numOpenedBombs--;
+        } else {
+            numOpenedSafe--;
+        }
+
+        for (BoardListener listener : listeners) {
+            listener.cellClosed(index);
+        }
+    }
+
+    public void flag(int index) {
+
+        cells[index] ^= FLAGGED;
+
+        if (isFlagged(index)) {
+            numFlagged++;
+        } else {
+            numFlagged--;
+        }
+
+        for (BoardListener listener : listeners) {
+            listener.cellFlagged(index);
+        }
+    }
+
+    /**
+     * opens every cell and takes the flag off of every safe cell, as the end of a game does -
+     * a flagged bomb is opened and keeps its flag
+     * <p>
+     * the cells are gone over in stripes, in parallel on a large board (see Stripes), and listeners are told once,
+     * with bitmaps of the cells changed, rather than once per cell
+     */
+    public void revealAll() {
+
+        long[] opened = listeners.length == 0 ? null : new long[(cells.length + 63) >>> 6];
+        long[] unflagged = listeners.length == 0 ? null : new long[opened.length];
+
+        int[] counts = Stripes.run(cells.length, (from, to) -> revealStripe(from, to, opened, unflagged), BoardState::add);
+
+        numOpenedSafe += counts[0];
+        numOpenedBombs += counts[1];
+        numFlagged -= counts[2];
+
+        for (BoardListener listener : listeners) {
+            listener.cellsRevealed(opened, unflagged);
+        }
+    }
+
+    /**
+     * @return the safe cells opened, the bombs opened and the flags taken off in the stripe
+     */
+    private int[] revealStripe(int from, int to, long[] opened, long[] unflagged) {
+
+        int[] counts = new int[3];
+
+        for (int i = from; i < to; i++) {
+
+            int cell = cells[i];
+
+            if ((cell & (BOMB | FLAGGED)) == FLAGGED) {
+
+                cell &= ~FLAGGED;
+                counts[2]++;
+
+                if (unflagged != null) {
+                    unflagged[i >>> 6] |= 1L << i;
+                }
+            }
+
+            if ((cell & OPENED) == 0) {
+
+                cell |= OPENED;
+                counts[(cell & BOMB) == 0 ? 0 : 1]++;
+
+                if (opened != null) {
+                    opened[i >>> 6] |= 1L << i;
+                }
+            }
+
+            cells[i] = (byte) cell;
+        }
+
+        return counts;
+    }
+
+    private static int[] add(int[] a, int[] b) {
+
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+
+        return a;
+    }
+
+    /**
+     * packs one of the cell bits into a bitmap, with bit i % 64 of word i / 64 set for each cell i which has it,
+     * in parallel on a large board
+     * <p>
+     * each whole word is packed eight cells at a time, without a branch - the bit of each of the eight cells is
+     * shifted down to the bottom of its byte, and multiplying by a constant with a bit 7 places apart for each byte
+     * gathers the eight of them into the top byte
+     *
+     * @param bit the cell bit to pack, BOMB, OPENED or FLAGGED
+     * @return the bitmap
+     */
+    long[] toBitmap(int bit) {
+
+        long[] bitmap = new long[(cells.length + 63) >>> 6];
+        int shift = Integer.numberOfTrailingZeros(bit);
+
+        Stripes.run(cells.length, (from, to) -> {
+
+            int whole = from + ((to - from) & ~63);
+
+            for (int i = from; i < whole; i += 64) {
+
+                long word = 0;
+
+                for (int k = 0; k < 64; k += 8) {
+                    long eight = (long) LONGS.get(cells, i + k) >>> shift & 0x0101010101010101L;
+                    word |= (eight * 0x0102040810204080L >>> 56) << k;
+                }
+
+                bitmap[i >>> 6] = word;
+            }
+
+            for (int i = whole; i < to; i++) {
+                if ((cells[i] & bit) != 0) {
+                    bitmap[i >>> 6] |= 1L << i;
+                }
+            }
+
+            return bitmap;
+        }, (a, b) -> a);
+
+        return bitmap;
+    }
+
+    /**
+     * replaces every cell with the given bitmaps, as packed by toBitmap, rebuilding the clues and counters from the set bits alone
+     * listeners are not told, as nothing has been drawn of a board which is being restored
+     * <p>
+     * on a large board the stripes are restored in parallel, each counting only the clues of its own cells -
+     * which are counted from the rows of bombs either side of them, so also from the bombs just outside the stripe
+     *
+     * @param bombs   the bitmap of bombs
+     * @param opened  the bitmap of opened cells
+     * @param flagged the bitmap of flagged cells
+     */
+    void restore(long[] bombs, long[] opened, long[] flagged) {
+
+        int[] counts = Stripes.run(cells.length, (from, to) -> restoreStripe(bombs, opened, flagged, from, to), BoardState::add);
+
+        numBombs = counts[0];
+        numOpenedSafe = counts[1];
+        numOpenedBombs = counts[2];
+        numFlagged = counts[3];
+    }
+
+    /**
+     * @return the bombs, safe cells opened, bombs opened and flags in the stripe
+     */
+    private int[] restoreStripe(long[] bombs, long[] opened, long[] flagged, int from, int to) {
+
+        int[] counts = new int[4];
+
+        if (from == to) {
+            return counts;
+        }
+
+        /**
+         * every clue is counted from the bombs around it a row at a time, which also clears the rest of each cell
+         */
+        NeighbourCounts.count(bombs, rows, columns, from, to, cells);
+
+        for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+
+            for (long bits = bombs[word]; bits != 0; bits &= bits - 1) {
+                cells[word << 6 | Long.numberOfTrailingZeros(bits)] |= BOMB;
+            }
+            counts[0] += Long.bitCount(bombs[word]);
+
+            for (long bits = opened[word]; bits != 0; bits &= bits - 1) {
+                cells[word << 6 | Long.numberOfTrailingZeros(bits)] |= OPENED;
+            }
+            counts[1] += Long.bitCount(opened[word] & ~bombs[word]);
+            counts[2] += Long.bitCount(opened[word] & bombs[word]);
+
+            for (long bits = flagged[word]; bits != 0; bits &= bits - 1) {
+                cells[word << 6 | Long.numberOfTrailingZeros(bits)] |= FLAGGED;
+            }
+            counts[3] += Long.bitCount(flagged[word]);
+        }
+
+        return counts;
+    }
+
+    public void addListener(BoardListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void removeListener(BoardListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                BoardListener[] remaining = new BoardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+}
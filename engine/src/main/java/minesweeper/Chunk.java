@@ -0,0 +1,46 @@
+package minesweeper;
+
+/**
+ * a square block of cells of an InfiniteBoard, packed one byte per cell in the same layout as BoardState
+ * <p>
+ * chunks are only ever created for the parts of the board which are looked at, and are small enough to be written
+ * to disk and read back whole when memory runs short
+ */
+class Chunk {
+
+    static final int SHIFT = 6;
+    static final int SIZE = 1 << SHIFT;
+    static final int MASK = SIZE - 1;
+
+    final int chunkR, chunkC;
+
+    /**
+     * one byte per cell, laid out row by row, using the BoardState bits
+     */
+    final byte[] cells;
+
+    /**
+     * whether any cell has been opened or flagged, since untouched chunks can be made again instead of saved
+     */
+    boolean touched;
+
+    Chunk(int chunkR, int chunkC, byte[] cells, boolean touched) {
+
+        this.chunkR = chunkR;
+        this.chunkC = chunkC;
+        this.cells = cells;
+        this.touched = touched;
+    }
+
+    static int index(int r, int c) {
+        return (r & MASK) << SHIFT | (c & MASK);
+    }
+
+    /**
+     * @return the single number a chunk is found by, from its location
+     */
+    static long key(int chunkR, int chunkC) {
+        return (long) chunkR << 32 | (chunkC & 0xFFFFFFFFL);
+    }
+
+}
@@ -0,0 +1,847 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * what a solver needs to know about every cell of a board, kept as bitmaps of a bit per cell, laid out as
+ * BoardState.toBitmap lays them out - which cells are opened, flagged, opened clues, deduced to be bombs, deduced
+ * at all, and on the frontier (closed, next to an opened clue)
+ * <p>
+ * the bits are kept up to date as the board changes, a few bits for each cell opened, closed or flagged, and the
+ * deduced bits are set by the solver. Questions about many cells at once are answered a word at a time:
+ * <ul>
+ * <li>the frontier, the clues on it and the cells away from it are found by and-ing, or-ing and shifting whole words
+ * of the bitmaps, rather than looking around every cell</li>
+ * <li>the cells around a cell are packed into windows of the 7x7 square centred on it, a bit each, so the cells
+ * around a clue, or shared by two clues near each other, are an and of two longs and a bitCount</li>
+ * <li>the cells around each of a word of cells are counted all at once, into planes of bits, so rules can be
+ * applied to 64 clues at a time - the clues' numbers are kept as planes of bits too</li>
+ * </ul>
+ */
+final class Frontier implements BoardListener {
+
+    /**
+     * how far a window reaches from the cell it is centred on, far enough for the cells around any clue up to
+     * two cells away - the cell dr rows and dc columns from the centre is bit (dr + RADIUS) * SIDE + dc + RADIUS
+     */
+    static final int RADIUS = 3;
+    static final int SIDE = 2 * RADIUS + 1;
+    static final int CENTRE = RADIUS * SIDE + RADIUS;
+
+    /**
+     * for each bit of a window, the bits of the (up to eight) cells around it which are inside the window
+     */
+    private static final long[] AROUND = new long[SIDE * SIDE];
+
+    /**
+     * the bits of a window up to two cells from its centre, leaving out the centre itself -
+     * where the clues which can share cells with the centre's clue are
+     */
+    static final long NEAR;
+
+    static {
+
+        long near = 0;
+
+        for (int bit = 0; bit < SIDE * SIDE; bit++) {
+
+            int r = bit / SIDE;
+            int c = bit % SIDE;
+
+            for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, SIDE - 1); newR++) {
+                for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, SIDE - 1); newC++) {
+                    if (newR != r || newC != c) {
+                        AROUND[bit] |= 1L << (newR * SIDE + newC);
+                    }
+                }
+            }
+
+            if (bit != CENTRE && Math.abs(r - RADIUS) <= 2 && Math.abs(c - RADIUS) <= 2) {
+                near |= 1L << bit;
+            }
+        }
+
+        NEAR = near;
+    }
+
+    private final BoardState state;
+    private final int rows, columns;
+
+    /**
+     * opened and flagged follow the board, clues are the opened cells which are not bombs,
+     * bombs and known are what has been deduced, and frontier is the closed cells next to a clue
+     */
+    private final long[] opened, flagged, clues, bombs, known, frontier;
+
+    /**
+     * the numbers of the clues, bit p of each clue's number being its bit of values[p]
+     */
+    private final long[][] values;
+
+    /**
+     * the cells which have a column to their left, and to their right, for masking off the cells around a word of
+     * cells which wrap onto the row before or after
+     */
+    private final long[] notFirst, notLast;
+
+    /**
+     * the cells of the last word of the board's bitmaps which are on the board
+     */
+    private final long lastWord;
+
+    /**
+     * scratch space for the cells around a word of cells, three for each of the rows above, of and below it,
+     * leaving out the cells of the word themselves
+     */
+    private final long[] unknownAround = new long[9], bombsAround = new long[9], cellsAround = new long[3];
+
+    /**
+     * @param state the board to follow, whose opened and flagged cells are taken as they are now
+     */
+    Frontier(BoardState state) {
+
+        this.state = state;
+        this.rows = state.getRows();
+        this.columns = state.getColumns();
+
+        this.opened = state.toBitmap(BoardState.OPENED);
+        this.flagged = state.toBitmap(BoardState.FLAGGED);
+        this.clues = state.toBitmap(BoardState.BOMB);
+        this.bombs = new long[opened.length];
+        this.known = new long[opened.length];
+
+        for (int word = 0; word < opened.length; word++) {
+            clues[word] = opened[word] & ~clues[word];
+        }
+
+        this.frontier = spread(clues);
+
+        for (int word = 0; word < opened.length; word++) {
+            frontier[word] &= ~opened[word];
+        }
+
+        this.values = new long[4][];
+
+        for (int plane = 0; plane < values.length; plane++) {
+
+            values[plane] = state.toBitmap(1 << plane);
+
+            for (int word = 0; word < opened.length; word++) {
+                values[plane][word] &= clues[word];
+            }
+        }
+
+        this.lastWord = (state.size() & 63) == 0 ? -1L : (1L << state.size()) - 1;
+        this.notFirst = new long[opened.length];
+        this.notLast = new long[opened.length];
+
+        for (int word = 0; word < opened.length; word++) {
+            notFirst[word] = notLast[word] = word == opened.length - 1 ? lastWord : -1L;
+        }
+
+        for (int r = 0; r < rows; r++) {
+            set(notFirst, r * columns, false);
+            set(notLast, r * columns + columns - 1, false);
+        }
+    }
+
+    /**
+     * @param bitmap a bitmap of the board
+     * @return a bitmap of every cell which is set, or next to a cell which is set
+     */
+    private long[] spread(long[] bitmap) {
+
+        long[] spread = new long[bitmap.length];
+
+        if (bitmap.length == 0) {
+            return spread;
+        }
+
+        int words = (columns + 63) >>> 6;
+
+        long[] above = new long[words];
+        long[] row = new long[words];
+        long[] below = new long[words];
+        long[] out = new long[words];
+
+        NeighbourCounts.extract(bitmap, 0, columns, row);
+
+        for (int r = 0; r < rows; r++) {
+
+            if (r + 1 < rows) {
+                NeighbourCounts.extract(bitmap, r + 1, columns, below);
+            } else {
+                Arrays.fill(below, 0);
+            }
+
+            /**
+             * the rows either side are or-ed into the row, then that is or-ed with itself shifted a column each way
+             */
+            for (int k = 0; k < words; k++) {
+                out[k] = above[k] | row[k] | below[k];
+            }
+
+            long carry = 0;
+
+            for (int k = 0; k < words; k++) {
+
+                long column = out[k];
+                long next = k + 1 < words ? out[k + 1] : 0;
+
+                out[k] = column | column << 1 | carry | column >>> 1 | next << 63;
+                carry = column >>> 63;
+            }
+
+            if ((columns & 63) != 0) {
+                out[words - 1] &= (1L << columns) - 1;
+            }
+
+            deposit(out, r, spread);
+
+            long[] spare = above;
+            above = row;
+            row = below;
+            below = spare;
+        }
+
+        return spread;
+    }
+
+    /**
+     * ors a row of bits, starting from bit 0 of its first word, into a bitmap of the board
+     */
+    private void deposit(long[] row, int r, long[] bitmap) {
+
+        long start = (long) r * columns;
+
+        for (int k = 0; k < row.length; k++) {
+
+            long bit = start + ((long) k << 6);
+            int word = (int) (bit >>> 6);
+            int shift = (int) bit & 63;
+
+            bitmap[word] |= row[k] << shift;
+
+            if (shift != 0 && word + 1 < bitmap.length) {
+                bitmap[word + 1] |= row[k] >>> (64 - shift);
+            }
+        }
+    }
+
+    public void cellOpened(int index) {
+
+        set(opened, index, true);
+        set(frontier, index, false);
+
+        if (state.isBomb(index)) {
+            return;
+        }
+
+        set(clues, index, true);
+        setValue(index);
+
+        setAround(index, frontier, opened, null);
+    }
+
+    /**
+     * the cell, and any cell around it which it was the only clue next to, may have left the frontier
+     */
+    public void cellClosed(int index) {
+
+        set(opened, index, false);
+        set(clues, index, false);
+        setValue(index);
+
+        int r = index / columns;
+        int c = index % columns;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int newI = newR * columns + newC;
+
+                set(frontier, newI, !isOpened(newI) && (window(clues, newR, newC) & AROUND[CENTRE]) != 0);
+            }
+        }
+    }
+
+    public void cellFlagged(int index) {
+        set(flagged, index, state.isFlagged(index));
+    }
+
+    /**
+     * the clues around a cell whose bomb has been moved have changed
+     */
+    void bombMoved(int index) {
+
+        int r = index / columns;
+        int c = index % columns;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+                setValue(newR * columns + newC);
+            }
+        }
+    }
+
+    /**
+     * keeps a cell's bits of the clues' numbers in step with the board, with no bits for a cell which isn't a clue
+     */
+    private void setValue(int index) {
+
+        int value = get(clues, index) ? state.getClue(index) : 0;
+        long bit = 1L << index;
+
+        for (int plane = 0; plane < values.length; plane++) {
+            values[plane][index >>> 6] = values[plane][index >>> 6] & ~bit | -(value >>> plane & 1) & bit;
+        }
+    }
+
+    /**
+     * records what has been deduced about a cell
+     *
+     * @param index the index of the cell
+     * @param bomb  whether it was deduced to be a bomb, rather than safe
+     */
+    void setKnown(int index, boolean bomb) {
+        set(known, index, true);
+        set(bombs, index, bomb);
+    }
+
+    public boolean isOpened(int index) {
+        return get(opened, index);
+    }
+
+    public boolean isFlagged(int index) {
+        return get(flagged, index);
+    }
+
+    public boolean isKnown(int index) {
+        return get(known, index);
+    }
+
+    public boolean isKnownBomb(int index) {
+        return get(bombs, index);
+    }
+
+    public boolean isFrontier(int index) {
+        return get(frontier, index);
+    }
+
+    /**
+     * @return if the cell is closed and nothing has been deduced about it
+     */
+    public boolean isUnknown(int index) {
+        return !get(opened, index) && !get(known, index);
+    }
+
+    /**
+     * @return the closed cells which nothing has been deduced about
+     */
+    int countUnknown() {
+
+        int unknown = state.size();
+
+        for (int word = 0; word < opened.length; word++) {
+            unknown -= Long.bitCount(opened[word] | known[word]);
+        }
+
+        return unknown;
+    }
+
+    /**
+     * @return the closed cells which have been deduced to be bombs
+     */
+    int countKnownBombs() {
+
+        int count = 0;
+
+        for (int word = 0; word < opened.length; word++) {
+            count += Long.bitCount(bombs[word] & ~opened[word]);
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the unknown cells on the frontier, in ascending order
+     */
+    int[] unknownFrontier() {
+
+        long[] cells = new long[frontier.length];
+
+        for (int word = 0; word < frontier.length; word++) {
+            cells[word] = frontier[word] & ~known[word];
+        }
+
+        return indices(cells);
+    }
+
+    /**
+     * @return the clues with any unknown cell around them, in ascending order
+     */
+    int[] unsolvedClues() {
+        return indices(unsolvedClueBits());
+    }
+
+    /**
+     * @return a bitmap of the clues with any unknown cell around them
+     */
+    long[] unsolvedClueBits() {
+
+        long[] unknown = new long[frontier.length];
+
+        for (int word = 0; word < frontier.length; word++) {
+            unknown[word] = frontier[word] & ~known[word];
+        }
+
+        long[] cells = spread(unknown);
+
+        for (int word = 0; word < cells.length; word++) {
+            cells[word] &= clues[word];
+        }
+
+        return cells;
+    }
+
+    /**
+     * @param word a word of the board's bitmaps
+     * @return the clues in the word
+     */
+    long clues(int word) {
+        return clues[word];
+    }
+
+    /**
+     * @param word  a word of the board's bitmaps
+     * @param plane which bit of the clues' numbers
+     * @return that bit of the number of each clue in the word
+     */
+    long values(int word, int plane) {
+        return values[plane][word];
+    }
+
+    /**
+     * @param word a word of the board's bitmaps
+     * @return the closed cells in the word which nothing has been deduced about
+     */
+    long unknown(int word) {
+        return unknownWord(word);
+    }
+
+    /**
+     * records what has been deduced about a word of cells
+     *
+     * @param word  a word of the board's bitmaps
+     * @param cells the cells of the word which have been deduced
+     * @param bomb  whether they were deduced to be bombs, rather than safe
+     */
+    void setKnown(int word, long cells, boolean bomb) {
+
+        known[word] |= cells;
+
+        if (bomb) {
+            bombs[word] |= cells;
+        } else {
+            bombs[word] &= ~cells;
+        }
+    }
+
+    /**
+     * counts the cells around every cell of a word of the board at once, as adders made of and, or and xor -
+     * bit b of plane p of a count is bit p of the count for the cell at bit b of the word
+     *
+     * @param word   a word of the board's bitmaps
+     * @param counts where the four planes of the count of unknown cells go, then the four of closed cells deduced
+     *               to be bombs
+     */
+    void countAround(int word, long[] counts) {
+
+        long base = (long) word << 6;
+
+        for (int dr = -1, n = 0; dr <= 1; dr++, n += 3) {
+
+            long start = base + (long) dr * columns;
+            int at = (int) (start >> 6);
+            int shift = (int) start & 63;
+
+            around(unknownWord(at - 1), unknownWord(at), unknownWord(at + 1), shift, word, dr == 0, unknownAround, n);
+            around(bombWord(at - 1), bombWord(at), bombWord(at + 1), shift, word, dr == 0, bombsAround, n);
+        }
+
+        add(unknownAround, counts, 0);
+        add(bombsAround, counts, 4);
+    }
+
+    /**
+     * @return the unknown cells of a word of the board, with none for words off either end
+     */
+    private long unknownWord(int word) {
+
+        if (word < 0 || word >= opened.length) {
+            return 0;
+        }
+
+        return ~(opened[word] | known[word]) & (word == opened.length - 1 ? lastWord : -1L);
+    }
+
+    /**
+     * @return the closed cells of a word of the board deduced to be bombs, with none for words off either end
+     */
+    private long bombWord(int word) {
+        return word < 0 || word >= opened.length ? 0 : bombs[word] & ~opened[word];
+    }
+
+    /**
+     * @return a word of a bitmap of the board, with none for words off either end
+     */
+    private static long word(long[] bitmap, int word) {
+        return word < 0 || word >= bitmap.length ? 0 : bitmap[word];
+    }
+
+    /**
+     * lines up the cells of a row around each cell of a word of the board, from the three words the row straddles -
+     * the cells in the column to the left of them, in their own column, and in the column to the right
+     *
+     * @param before the word before the one the row starts in
+     * @param row    the word the row starts in
+     * @param after  the word after
+     * @param shift  how far into its word the row starts
+     * @param word   the word of the board whose cells the row is around
+     * @param own    whether it is the cells' own row, whose cells in their own column are left out
+     * @param out    where the three are put, from out[n] onwards
+     */
+    private void around(long before, long row, long after, int shift, int word, boolean own, long[] out, int n) {
+
+        long middle = row >>> shift | after << 1 << (63 - shift);
+        long left = shift == 0 ? before >>> 63 : row >>> (shift - 1) & 1;
+        long right = after >>> shift & 1;
+
+        out[n] = (middle << 1 | left) & notFirst[word];
+        out[n + 1] = own ? 0 : middle;
+        out[n + 2] = (middle >>> 1 | right << 63) & notLast[word];
+    }
+
+    /**
+     * adds up the eight bits around each of 64 cells, into four planes - bits[4] being the cells themselves,
+     * which are left out
+     */
+    private static void add(long[] bits, long[] counts, int at) {
+
+        long s0 = bits[0] ^ bits[1] ^ bits[2], c0 = bits[0] & bits[1] | bits[2] & (bits[0] ^ bits[1]);
+        long s1 = bits[3] ^ bits[5] ^ bits[6], c1 = bits[3] & bits[5] | bits[6] & (bits[3] ^ bits[5]);
+        long s2 = bits[7] ^ bits[8], c2 = bits[7] & bits[8];
+
+        /**
+         * the three sums of ones add up to the first bit of the count and a carry of two, and the four twos to
+         * the second bit and up to two carries of four
+         */
+        long c3 = s0 & s1 | s2 & (s0 ^ s1);
+        long t = c0 ^ c1 ^ c2, c4 = c0 & c1 | c2 & (c0 ^ c1);
+
+        counts[at] = s0 ^ s1 ^ s2;
+        counts[at + 1] = t ^ c3;
+
+        long c5 = t & c3;
+
+        counts[at + 2] = c4 ^ c5;
+        counts[at + 3] = c4 & c5;
+    }
+
+    /**
+     * sets the bits of a cell and of the cells around it, a row of up to three bits at a time
+     *
+     * @param index  the index of the cell
+     * @param bitmap a bitmap of the board
+     * @param except a bitmap of the cells to leave as they are, or null
+     * @param words  a bit for each word of the board's bitmaps, which is set for every word changed, or null
+     */
+    void setAround(int index, long[] bitmap, long[] except, long[] words) {
+
+        int r = index / columns;
+        int c = index % columns;
+
+        int fromC = Math.max(c - 1, 0);
+        long cells = (1L << Math.min(c + 1, columns - 1) - fromC + 1) - 1;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+
+            int start = newR * columns + fromC;
+
+            set(bitmap, except, words, start >>> 6, cells << start);
+
+            /**
+             * the row of cells runs on into the next word
+             */
+            if ((start & 63) > 61 && cells >>> (64 - (start & 63)) != 0) {
+                set(bitmap, except, words, (start >>> 6) + 1, cells >>> (64 - (start & 63)));
+            }
+        }
+    }
+
+    private static void set(long[] bitmap, long[] except, long[] words, int word, long bits) {
+
+        bitmap[word] |= except == null ? bits : bits & ~except[word];
+
+        if (words != null) {
+            words[word >>> 6] |= 1L << word;
+        }
+    }
+
+    /**
+     * @param bitmap a bitmap of the board
+     * @param word   a word of the board's bitmaps
+     * @return the cells of the word next to any cell set in the bitmap
+     */
+    long nextTo(long[] bitmap, int word) {
+
+        long base = (long) word << 6;
+        long cells = 0;
+
+        for (int dr = -1; dr <= 1; dr++) {
+
+            long start = base + (long) dr * columns;
+            int at = (int) (start >> 6);
+
+            around(word(bitmap, at - 1), word(bitmap, at), word(bitmap, at + 1), (int) start & 63, word, dr == 0,
+                    cellsAround, 0);
+            cells |= cellsAround[0] | cellsAround[1] | cellsAround[2];
+        }
+
+        return cells;
+    }
+
+    /**
+     * finds every word of the board holding a cell around a cell of the given words, a bit for each word
+     * <p>
+     * the cells around a word of cells are in the words either side of it, and in those words a row of words
+     * further on and back - a row being columns / 64 words, and one more when it does not end on a word
+     *
+     * @param words a bit for each word of the board's bitmaps, which is cleared
+     * @param out   where the bits of the words around them are set
+     */
+    void wordsAround(long[] words, long[] out) {
+
+        int row = columns >>> 6;
+        long carry = 0;
+
+        for (int k = 0; k < words.length; k++) {
+
+            long bits = words[k];
+            long next = k + 1 < words.length ? words[k + 1] : 0;
+
+            words[k] = bits | bits << 1 | carry | bits >>> 1 | next << 63;
+            carry = bits >>> 63;
+        }
+
+        for (int k = 0; k < words.length; k++) {
+            out[k] |= words[k] | shifted(words, k, row) | shifted(words, k, -row);
+        }
+
+        Arrays.fill(words, 0);
+
+        if ((opened.length & 63) != 0) {
+            out[out.length - 1] &= (1L << opened.length) - 1;
+        }
+    }
+
+    /**
+     * @return the bits of a bitmap which land in the given word when every bit is moved on by the given amount
+     */
+    private static long shifted(long[] bitmap, int word, int by) {
+        return at(bitmap, ((long) word << 6) - by);
+    }
+
+    /**
+     * @param from the index to start looking from
+     * @return the first unknown cell away from the frontier at or after from, or -1 if there is none
+     */
+    int nextInterior(int from) {
+
+        for (int word = from >>> 6; word < opened.length; word++) {
+
+            long cells = ~(opened[word] | known[word] | frontier[word]);
+
+            if (word == from >>> 6) {
+                cells &= -1L << from;
+            }
+
+            if (cells != 0) {
+                int index = word << 6 | Long.numberOfTrailingZeros(cells);
+                return index < state.size() ? index : -1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * fills in the windows of the cells right around a cell, which is all the single clue rules need
+     *
+     * @param r       the row of the centre
+     * @param c       the column of the centre
+     * @param windows where to put the unknown cells and the closed cells deduced to be bombs, as bits of the window
+     *                centred on the cell, with only the cells around the centre in them
+     */
+    void around(int r, int c, long[] windows) {
+
+        long unknown = 0, knownBombs = 0;
+
+        int fromC = Math.max(c - 1, 0);
+        int length = Math.min(c + 1, columns - 1) - fromC + 1;
+        long all = (1L << length) - 1;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+
+            int start = newR * columns + fromC;
+            int at = (newR - r + RADIUS) * SIDE + fromC - c + RADIUS;
+
+            long rowOpened = bits(opened, start, length);
+
+            unknown |= (~(rowOpened | bits(known, start, length)) & all) << at;
+            knownBombs |= (bits(bombs, start, length) & ~rowOpened) << at;
+        }
+
+        windows[0] = unknown & AROUND[CENTRE];
+        windows[1] = knownBombs & AROUND[CENTRE];
+    }
+
+    /**
+     * fills in the windows of the square of cells around a cell which a solver compares clues with
+     *
+     * @param r       the row of the centre
+     * @param c       the column of the centre
+     * @param windows where to put the unknown cells, the closed cells deduced to be bombs, and the clues,
+     *                with the cells off the board in none of them
+     */
+    void windows(int r, int c, long[] windows) {
+
+        long unknown = 0, knownBombs = 0, clueCells = 0;
+
+        int fromC = Math.max(c - RADIUS, 0);
+        int length = Math.min(c + RADIUS, columns - 1) - fromC + 1;
+        long all = (1L << length) - 1;
+
+        for (int newR = Math.max(r - RADIUS, 0); newR <= Math.min(r + RADIUS, rows - 1); newR++) {
+
+            int start = newR * columns + fromC;
+            int at = (newR - r + RADIUS) * SIDE + fromC - c + RADIUS;
+
+            long rowOpened = bits(opened, start, length);
+
+            unknown |= (~(rowOpened | bits(known, start, length)) & all) << at;
+            knownBombs |= (bits(bombs, start, length) & ~rowOpened) << at;
+            clueCells |= bits(clues, start, length) << at;
+        }
+
+        windows[0] = unknown;
+        windows[1] = knownBombs;
+        windows[2] = clueCells;
+    }
+
+    /**
+     * @return the bits of a bitmap in the window centred on a cell
+     */
+    private long window(long[] bitmap, int r, int c) {
+
+        long window = 0;
+
+        int fromC = Math.max(c - RADIUS, 0);
+        int length = Math.min(c + RADIUS, columns - 1) - fromC + 1;
+
+        for (int newR = Math.max(r - RADIUS, 0); newR <= Math.min(r + RADIUS, rows - 1); newR++) {
+            window |= bits(bitmap, newR * columns + fromC, length) << ((newR - r + RADIUS) * SIDE + fromC - c + RADIUS);
+        }
+
+        return window;
+    }
+
+    /**
+     * @param bit a bit of a window
+     * @return the bits of the cells around it
+     */
+    static long around(int bit) {
+        return AROUND[bit];
+    }
+
+    /**
+     * @param r   the row of the window's centre
+     * @param c   the column of the window's centre
+     * @param bit a bit of the window
+     * @return the index of the cell at that bit
+     */
+    int cellAt(int r, int c, int bit) {
+        return (r + bit / SIDE - RADIUS) * columns + c + bit % SIDE - RADIUS;
+    }
+
+    /**
+     * @return up to 64 bits of a bitmap, from the given bit onwards
+     */
+    private static long bits(long[] bitmap, int start, int length) {
+
+        int word = start >>> 6;
+        int shift = start & 63;
+
+        long bits = bitmap[word] >>> shift;
+
+        if (shift + length > 64) {
+            bits |= bitmap[word + 1] << (64 - shift);
+        }
+
+        return length == 64 ? bits : bits & ((1L << length) - 1);
+    }
+
+    /**
+     * @return 64 bits of a bitmap from the given bit onwards, with none for bits off either end
+     */
+    private static long at(long[] bitmap, long start) {
+
+        long word = start >> 6;
+        int shift = (int) start & 63;
+
+        long low = word >= 0 && word < bitmap.length ? bitmap[(int) word] : 0;
+
+        if (shift == 0) {
+            return low;
+        }
+
+        long high = word + 1 >= 0 && word + 1 < bitmap.length ? bitmap[(int) word + 1] : 0;
+
+        return low >>> shift | high << (64 - shift);
+    }
+
+    private static boolean get(long[] bitmap, int index) {
+        return (bitmap[index >>> 6] & 1L << index) != 0;
+    }
+
+    private static void set(long[] bitmap, int index, boolean value) {
+        if (value) {
+            bitmap[index >>> 6] |= 1L << index;
+        } else {
+            bitmap[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * @return the index of every set bit of a bitmap, in ascending order
+     */
+    private static int[] indices(long[] bitmap) {
+
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+
+        int[] indices = new int[count];
+        int next = 0;
+
+        for (int word = 0; word < bitmap.length; word++) {
+            for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                indices[next++] = word << 6 | Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        return indices;
+    }
+
+}
@@ -0,0 +1,207 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * the rules of a single game of Minesweeper -
+ * applies turns to a board and keeps track of whether the game has been won or lost
+ * <p>
+ * a game needs no display, so it can be played by the Processing sketch and by headless code alike
+ */
+public class Game {
+
+    private Board board;
+
+    private boolean won, lost;
+
+    /**
+     * the amount of turns which have been applied to the board
+     */
+    private int turnsPlayed;
+
+    /**
+     * everything which is told about the turns applied
+     */
+    private TurnListener[] listeners = new TurnListener[0];
+
+    public Game(Board board) {
+        this(board, 0, false, false);
+    }
+
+    /**
+     * carries on a game from part way through, such as one restored from a snapshot
+     *
+     * @param board       the board, as it was after the turns played
+     * @param turnsPlayed the amount of turns which have been applied to the board
+     * @param won         whether the game has been won
+     * @param lost        whether the game has been lost
+     */
+    Game(Board board, int turnsPlayed, boolean won, boolean lost) {
+
+        this.board = board;
+
+        this.won = won;
+        this.lost = lost;
+
+        this.turnsPlayed = turnsPlayed;
+    }
+
+    /**
+     * gets the player's turn, given the current board, and applies it
+     *
+     * @param player the player whose turn it is
+     */
+    public void playTurn(Player player) {
+        applyTurn(player.getTurn(board));
+    }
+
+    /**
+     * acts upon the turn's chosen cell with its chosen move
+     * given the move committed, this method also checks if the game has been won or lost
+     *
+     * @param turn the turn to apply, which is ignored if it is null, off of the board or the game is over
+     */
+    public void applyTurn(Turn turn) {
+
+        if (turn == null || isOver()) {
+            return;
+        }
+
+        int r = turn.getRow();
+        int c = turn.getColumn();
+        int move = turn.getMove();
+
+        if (!board.getState().inBounds(r, c) || move == -1) {
+            return;
+        }
+
+        if (move == Turn.OPENING) {
+            handleOpen(r, c);
+        } else if (move == Turn.FLAGGING) {
+            handleFlag(r, c);
+        } else if (move == Turn.SWEEPING) {
+            handleSweep(r, c);
+        }
+
+        turnsPlayed++;
+
+        if (board.anyBombOpened()) {
+            lost = true;
+            board.revealEverything();
+        } else if (board.allButBombsOpened()) {
+            won = true;
+            board.revealEverything();
+        }
+
+        for (TurnListener listener : listeners) {
+            listener.turnApplied(turn);
+        }
+    }
+
+    /**
+     * if board's bombs aren't set yet (i.e. if this is the first cell opened), place them around this cell
+     * if the given cell isn't flagged, open it (different open methods are called depending on the type of cell)
+     *
+     * @param r the row of the given cell
+     * @param c the column of the given cell
+     */
+    private void handleOpen(int r, int c) {
+
+        if (!board.isFlagged(r, c)) {
+
+            if (!board.bombsSet()) {
+                board.placeBombs(r, c);
+            }
+
+            if (board.isBomb(r, c)) {
+                board.open(r, c);
+            } else {
+                board.openSafeCell(r, c);
+            }
+
+        }
+
+    }
+
+    /**
+     * flag the given cell if the board has been set
+     *
+     * @param r the row of the given cell
+     * @param c the column of the given cell
+     */
+    private void handleFlag(int r, int c) {
+        if (board.bombsSet()) {
+
+            if (!board.isOpened(r, c)) {
+                board.flag(r, c);
+            }
+        }
+    }
+
+    /**
+     * sweep from the given cell if the board has been set
+     * and the number of bombs truly adjacent to a given cell match the number of flags adjacent to it
+     *
+     * @param r the row of the given cell
+     * @param c the column of the given cell
+     */
+    private void handleSweep(int r, int c) {
+        if (board.bombsSet()) {
+
+            if (board.getNumBombsAdjacent(r, c) == board.getNumFlagsAdjacent(r, c)) {
+                board.sweep(r, c);
+            }
+        }
+    }
+
+    /**
+     * puts the game back to how it was after some earlier or later turn, whose cells have already been restored
+     *
+     * @param turnsPlayed the amount of turns which had been applied
+     * @param won         whether the game had been won
+     * @param lost        whether the game had been lost
+     */
+    void restore(int turnsPlayed, boolean won, boolean lost) {
+        this.turnsPlayed = turnsPlayed;
+        this.won = won;
+        this.lost = lost;
+    }
+
+    public void addListener(TurnListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void removeListener(TurnListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                TurnListener[] remaining = new TurnListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public boolean isLost() {
+        return lost;
+    }
+
+    public boolean isOver() {
+        return won || lost;
+    }
+
+    public int getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+}
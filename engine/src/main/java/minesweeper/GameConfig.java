@@ -0,0 +1,241 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * the size of a board, how many bombs it holds, and whether it can be solved without guessing -
+ * everything needed to start a new game
+ * <p>
+ * a board may be any number of rows by any number of columns, from 1x1 up to as many cells as a BoardState can hold,
+ * as long as its bombs fit outside of the 3x3 area around the first click wherever that click lands.
+ * A board too small to have a whole 3x3 area in it keeps its first click's area as large as the board allows
+ * <p>
+ * configs can be made from command line flags, so headless runs can pick their board:
+ * <pre>
+ * --preset beginner|intermediate|expert
+ * --rows N --columns N
+ * --bombs N, or --density D for a fraction of the cells
+ * --no-guess
+ * </pre>
+ */
+public class GameConfig {
+
+    public static final GameConfig BEGINNER = new GameConfig(9, 9, 10, false);
+    public static final GameConfig INTERMEDIATE = new GameConfig(16, 16, 40, false);
+    public static final GameConfig EXPERT = new GameConfig(30, 16, 99, false);
+
+    private final int rows, columns, numBombs;
+    private final boolean noGuess;
+
+    /**
+     * @throws IllegalArgumentException if the board has no cells, more cells than a BoardState can hold,
+     *                                  or more bombs than fit outside of the first click's area
+     */
+    public GameConfig(int rows, int columns, int numBombs, boolean noGuess) {
+
+        if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid board dimensions: " + rows + "x" + columns);
+        }
+
+        if (numBombs < 0 || numBombs > maxBombs(rows, columns)) {
+            throw new IllegalArgumentException(numBombs + " bombs do not fit on a " + rows + "x" + columns
+                    + " board, which has room for at most " + maxBombs(rows, columns));
+        }
+
+        this.rows = rows;
+        this.columns = columns;
+        this.numBombs = numBombs;
+        this.noGuess = noGuess;
+    }
+
+    /**
+     * @param density the fraction of the cells which hold a bomb, rounded to the nearest bomb
+     */
+    public static GameConfig withDensity(int rows, int columns, double density, boolean noGuess) {
+
+        if (!(density >= 0 && density <= 1)) {
+            throw new IllegalArgumentException("density must be between 0 and 1: " + density);
+        }
+
+        return new GameConfig(rows, columns, (int) Math.round(density * rows * columns), noGuess);
+    }
+
+    /**
+     * @return the most bombs which fit on a board, leaving the largest first click's area it can have free
+     */
+    public static int maxBombs(int rows, int columns) {
+        return rows * columns - Math.min(3, rows) * Math.min(3, columns);
+    }
+
+    /**
+     * @param name beginner, intermediate or expert, in any case
+     * @throws IllegalArgumentException if there is no such preset
+     */
+    public static GameConfig preset(String name) {
+
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "beginner":
+                return BEGINNER;
+            case "intermediate":
+                return INTERMEDIATE;
+            case "expert":
+                return EXPERT;
+            default:
+                throw new IllegalArgumentException("unknown preset: " + name);
+        }
+    }
+
+    /**
+     * reads a config from command line flags, starting from a preset if one is given or else from the defaults,
+     * and changing whichever of its size, bombs or guessing the other flags give
+     * <p>
+     * every flag takes a value after it, except --no-guess
+     *
+     * @param args       the command line
+     * @param defaults   the config to start from when no preset is given
+     * @param otherFlags the names of flags which are left for the caller to read, with their value, such as "--games"
+     * @return the config
+     * @throws IllegalArgumentException if a flag is unknown, is missing its value, or gives a board which is not valid
+     */
+    public static GameConfig parse(String[] args, GameConfig defaults, String... otherFlags) {
+
+        List<String> others = Arrays.asList(otherFlags);
+
+        GameConfig config = defaults;
+        Integer rows = null, columns = null, numBombs = null;
+        Double density = null;
+        boolean noGuess = defaults.noGuess;
+
+        for (int i = 0; i < args.length; i++) {
+
+            String flag = args[i];
+
+            if (flag.equals("--no-guess")) {
+                noGuess = true;
+                continue;
+            }
+
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("missing a value for " + flag);
+            }
+
+            String value = args[++i];
+
+            try {
+                switch (flag) {
+                    case "--preset":
+                        config = preset(value);
+                        break;
+                    case "--rows":
+                        rows = Integer.parseInt(value);
+                        break;
+                    case "--columns":
+                        columns = Integer.parseInt(value);
+                        break;
+                    case "--bombs":
+                        numBombs = Integer.parseInt(value);
+                        break;
+                    case "--density":
+                        density = Double.parseDouble(value);
+                        break;
+                    default:
+                        if (!others.contains(flag)) {
+                            throw new IllegalArgumentException("unknown flag: " + flag);
+                        }
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("not a number for " + flag + ": " + value);
+            }
+        }
+
+        if (numBombs != null && density != null) {
+            throw new IllegalArgumentException("give either --bombs or --density, not both");
+        }
+
+        int r = rows != null ? rows : config.rows;
+        int c = columns != null ? columns : config.columns;
+
+        if (density != null) {
+            return withDensity(r, c, density, noGuess);
+        }
+
+        /**
+         * a new size without a new amount of bombs keeps the density of the board it started from,
+         * as far as its bombs fit - rounding can overfill a tiny board
+         */
+        if (numBombs == null && (r != config.rows || c != config.columns)) {
+            numBombs = (int) Math.min(Math.round(config.getDensity() * r * c), maxBombs(r, c));
+        }
+
+        return new GameConfig(r, c, numBombs != null ? numBombs : config.numBombs, noGuess);
+    }
+
+    /**
+     * @return the value which follows a flag on the command line, or null if the flag is not there
+     */
+    public static String option(String[] args, String flag) {
+
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(flag)) {
+                return args[i + 1];
+            }
+        }
+
+        return null;
+    }
+
+    public GameConfig withNoGuess(boolean noGuess) {
+        return noGuess == this.noGuess ? this : new GameConfig(rows, columns, numBombs, noGuess);
+    }
+
+    /**
+     * @return a new, empty board of this config, whose bombs are placed from the seed on the first click
+     */
+    public Board newBoard(long seed) {
+        return new Board(rows, columns, numBombs, seed, noGuess);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getNumBombs() {
+        return numBombs;
+    }
+
+    public boolean isNoGuess() {
+        return noGuess;
+    }
+
+    public double getDensity() {
+        return (double) numBombs / ((long) rows * columns);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (!(o instanceof GameConfig)) {
+            return false;
+        }
+
+        GameConfig other = (GameConfig) o;
+        return rows == other.rows && columns == other.columns && numBombs == other.numBombs && noGuess == other.noGuess;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((rows * 31 + columns) * 31 + numBombs) * 2 + (noGuess ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns + " with " + numBombs + " bombs" + (noGuess ? ", without guessing" : "");
+    }
+
+}
@@ -0,0 +1,335 @@
+package minesweeper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * serves the games of a SessionManager over a line-based protocol on localhost
+ * <p>
+ * every connection gets a thread of its own, virtual where the JDK has them, which reads one command at a time and
+ * answers it with one line. A connection may play any number of sessions, and a session may be played from any
+ * number of connections - turns on one session are still applied one at a time.
+ * <pre>
+ * NEW [GameConfig's flags] [--seed N]   OK id
+ * OPEN id r c                           OK PLAYING|WON|LOST turnsPlayed
+ * FLAG id r c                           OK PLAYING|WON|LOST turnsPlayed
+ * SWEEP id r c                          OK PLAYING|WON|LOST turnsPlayed
+ * VIEW id                               OK rows columns cells
+ * CLOSE id                              OK
+ * QUIT                                  OK, then the connection is closed
+ * </pre>
+ * VIEW writes every cell row by row, as . for a closed cell, F for a flagged one, * for an opened bomb,
+ * or the clue of an opened safe cell. Anything which goes wrong is answered with ERR and a message,
+ * as is a command longer than MAX_LINE_LENGTH, which is skipped without being kept
+ */
+public class GameServer implements Closeable {
+
+    /**
+     * the longest accepting waits after failing, before trying again
+     */
+    private static final int MAX_BACK_OFF_MILLIS = 1000;
+    /**
+     * the longest command a connection may send - far longer than any real one, but short enough that a connection
+     * sending a line which never ends cannot fill up the memory of a server holding thousands of sessions
+     */
+    static final int MAX_LINE_LENGTH = 1024;
+
+    private final SessionManager sessions;
+    private final ServerSocket socket;
+
+    private final Set<Socket> connections;
+    private final AtomicLong seeds;
+    private volatile boolean running = true;
+
+    /**
+     * @param sessions the sessions to serve
+     * @param port     the port to listen on, on localhost only, or 0 for any free port
+     * @param seed     the seed which the seed of every game not given one is derived from
+     * @throws IOException if the port cannot be listened on
+     */
+    public GameServer(SessionManager sessions, int port, long seed) throws IOException {
+
+        this.sessions = sessions;
+        this.socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.seeds = new AtomicLong(seed);
+    }
+
+    /**
+     * starts accepting connections, on a thread of its own
+     */
+    public void start() {
+        Threads.newThread("game-server", this::accept).start();
+    }
+
+    /**
+     * accepts connections on the calling thread, until the server is closed
+     */
+    public void serve() {
+        accept();
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * stops accepting connections and closes every connection open, leaving the sessions as they are
+     */
+    @Override
+    public void close() throws IOException {
+
+        running = false;
+        socket.close();
+
+        for (Socket connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void accept() {
+
+        int backOff = 0;
+
+        while (running) {
+
+            Socket connection;
+
+            try {
+                connection = socket.accept();
+                backOff = 0;
+            } catch (IOException e) {
+
+                if (socket.isClosed()) {
+                    return;
+                }
+
+                /**
+                 * a connection dropped before it was accepted fails once, but something like running out of file
+                 * descriptors fails every time until connections are closed, so each failure in a row waits longer
+                 */
+                backOff = Math.min(Math.max(backOff * 2, 1), MAX_BACK_OFF_MILLIS);
+
+                try {
+                    Thread.sleep(backOff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                continue;
+            }
+
+            connections.add(connection);
+            Threads.newThread("game-connection", () -> serve(connection)).start();
+        }
+    }
+
+    /**
+     * answers a connection's commands until it quits or is closed
+     */
+    private void serve(Socket connection) {
+
+        try (Socket open = connection;
+             BufferedReader in = new BufferedReader(new InputStreamReader(open.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(open.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            /**
+             * every answer is a single small write, which should not wait to be joined by a next one
+             */
+            open.setTcpNoDelay(true);
+
+            StringBuilder line = new StringBuilder();
+            while (readLine(in, line)) {
+
+                String command = line.toString();
+
+                out.write(line.length() > MAX_LINE_LENGTH ? "ERR command longer than " + MAX_LINE_LENGTH : handle(command));
+                out.write('\n');
+                out.flush();
+
+                if (command.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+            }
+
+        } catch (IOException e) {
+            /**
+             * the connection was dropped, which leaves its sessions open for another connection to carry on
+             */
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * reads a line up to its line break, keeping no more than one character past MAX_LINE_LENGTH of it,
+     * so a longer line is told apart by its length and the rest of it is read past without being kept
+     *
+     * @param in   the connection
+     * @param line where the line is read into, replacing what was there
+     * @return whether there was a line, false once the connection has ended
+     */
+    static boolean readLine(Reader in, StringBuilder line) throws IOException {
+
+        line.setLength(0);
+
+        int read = 0;
+        int c;
+
+        while ((c = in.read()) != -1 && c != '\n') {
+
+            read++;
+
+            if (line.length() <= MAX_LINE_LENGTH) {
+                line.append((char) c);
+            }
+        }
+
+        return c != -1 || read > 0;
+    }
+
+    /**
+     * answers one command
+     *
+     * @param line the command
+     * @return the answer, without its line break
+     */
+    String handle(String line) {
+
+        String[] words = line.trim().split("\\s+");
+
+        try {
+            switch (words[0].toUpperCase(Locale.ROOT)) {
+                case "NEW":
+                    return newSession(words);
+                case "OPEN":
+                    return turn(words, Turn.OPENING);
+                case "FLAG":
+                    return turn(words, Turn.FLAGGING);
+                case "SWEEP":
+                    return turn(words, Turn.SWEEPING);
+                case "VIEW":
+                    return view(words);
+                case "CLOSE":
+                    argumentCount(words, 2);
+                    return sessions.close(Long.parseLong(words[1])) ? "OK" : "ERR no such session: " + words[1];
+                case "QUIT":
+                    return "OK";
+                default:
+                    return "ERR unknown command: " + words[0];
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private String newSession(String[] words) {
+
+        String[] flags = new String[words.length - 1];
+        System.arraycopy(words, 1, flags, 0, flags.length);
+
+        GameConfig config = GameConfig.parse(flags, GameConfig.EXPERT, "--seed");
+
+        String seed = GameConfig.option(flags, "--seed");
+
+        return "OK " + sessions.create(config, seed == null ? seeds.getAndAdd(0x9E3779B97F4A7C15L) : Long.parseLong(seed));
+    }
+
+    private String turn(String[] words, int move) {
+
+        argumentCount(words, 4);
+
+        long id = Long.parseLong(words[1]);
+        Turn turn = new Turn(Integer.parseInt(words[2]), Integer.parseInt(words[3]), move);
+
+        return sessions.withGame(id, game -> {
+            game.applyTurn(turn);
+            return "OK " + (game.isWon() ? "WON" : game.isLost() ? "LOST" : "PLAYING") + " " + game.getTurnsPlayed();
+        });
+    }
+
+    private String view(String[] words) {
+
+        argumentCount(words, 2);
+
+        return sessions.withGame(Long.parseLong(words[1]), game -> {
+
+            BoardState state = game.getBoard().getState();
+            StringBuilder answer = new StringBuilder(state.size() + 32);
+
+            answer.append("OK ").append(state.getRows()).append(' ').append(state.getColumns()).append(' ');
+
+            for (int i = 0; i < state.size(); i++) {
+                if (state.isFlagged(i)) {
+                    answer.append('F');
+                } else if (!state.isOpened(i)) {
+                    answer.append('.');
+                } else if (state.isBomb(i)) {
+                    answer.append('*');
+                } else {
+                    answer.append((char) ('0' + state.getClue(i)));
+                }
+            }
+
+            return answer.toString();
+        });
+    }
+
+    private static void argumentCount(String[] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[0] + " takes " + (count - 1) + " arguments");
+        }
+    }
+
+    /**
+     * serves games until the process is stopped
+     *
+     * @param args optionally --port, --max-sessions, --max-cells, the most cells a session's board may have,
+     *             and --max-total-cells, the most cells the boards of all of the sessions may have between them
+     */
+    public static void main(String[] args) throws IOException {
+
+        String port = GameConfig.option(args, "--port");
+        String maxSessions = GameConfig.option(args, "--max-sessions");
+        String maxCells = GameConfig.option(args, "--max-cells");
+        String maxTotalCells = GameConfig.option(args, "--max-total-cells");
+
+        GameServer server = new GameServer(new SessionManager(
+                maxSessions == null ? 100_000 : Integer.parseInt(maxSessions),
+                maxCells == null ? SessionManager.DEFAULT_MAX_CELLS : Integer.parseInt(maxCells),
+                maxTotalCells == null ? SessionManager.DEFAULT_MAX_TOTAL_CELLS : Long.parseLong(maxTotalCells)),
+                port == null ? 7777 : Integer.parseInt(port), System.nanoTime());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                /**
+                 * the process is ending anyway
+                 */
+            }
+        }, "game-server-shutdown"));
+
+        System.out.println("serving games on localhost:" + server.getPort());
+
+        /**
+         * the connections are served on daemon threads, so the main thread accepts them itself to keep the process up
+         */
+        server.serve();
+    }
+
+}
@@ -0,0 +1,431 @@
+package minesweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * a board without edges, for infinite minesweeper -
+ * the board is split into chunks of 64x64 cells, which are only made once something looks at them,
+ * so memory grows with the area which has been explored rather than with the size of the board
+ * <p>
+ * whether a cell is a bomb is worked out from the seed and the cell's chunk and place in it, so any chunk can be made
+ * again exactly, and its clues can be found without making the chunks around it.
+ * The cells around 0, 0 are never bombs, so that the game can always start by opening there
+ * <p>
+ * only so many chunks are kept in memory at once; when another is needed, the one least recently used is dropped,
+ * and written to disk first if any of its cells have been opened or flagged.
+ * Closing the board deletes what it wrote
+ */
+public class InfiniteBoard implements Closeable {
+
+    /**
+     * below this density, the cells without bombs around them join up into regions which go on forever,
+     * and opening one of them would never finish
+     */
+    public static final double MIN_DENSITY = 0.1;
+
+    static final int DEFAULT_MAX_CHUNKS = 1024;
+
+    private final long seed;
+    private final double density;
+
+    /**
+     * the chunks in memory, least recently used first, and the chunks which have been written to disk
+     */
+    private final int maxChunks;
+    private final LinkedHashMap<Long, Chunk> chunks;
+    private final Set<Long> spilled;
+    private Path spillDirectory;
+    /**
+     * whether the spill directory was made by the board, and so is deleted along with the chunks in it
+     */
+    private boolean temporary;
+
+    /**
+     * the chunk used last, as most lookups land in the same chunk as the one before
+     */
+    private Chunk lastChunk;
+
+    private long numOpenedSafe, numFlagged;
+    private boolean lost;
+
+    /**
+     * The stack of packed cell locations still to be expanded by openSafeCell, kept between calls
+     */
+    private long[] fillStack = new long[64];
+
+    public InfiniteBoard(long seed, double density) {
+        this(seed, density, DEFAULT_MAX_CHUNKS, null);
+    }
+
+    /**
+     * @param seed           the seed every bomb is worked out from
+     * @param density        the chance of any cell being a bomb
+     * @param maxChunks      how many chunks can be kept in memory at once
+     * @param spillDirectory where chunks are written when they are dropped from memory, or null for a temporary directory
+     */
+    public InfiniteBoard(long seed, double density, int maxChunks, Path spillDirectory) {
+
+        if (density < MIN_DENSITY || density >= 1) {
+            throw new IllegalArgumentException("density must be in [" + MIN_DENSITY + ", 1): " + density);
+        }
+        if (maxChunks < 1) {
+            throw new IllegalArgumentException("at least one chunk must fit in memory: " + maxChunks);
+        }
+
+        this.seed = seed;
+        this.density = density;
+        this.maxChunks = maxChunks;
+        this.spillDirectory = spillDirectory;
+        this.spilled = new HashSet<>();
+
+        this.chunks = new LinkedHashMap<Long, Chunk>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Chunk> eldest) {
+
+                if (size() <= InfiniteBoard.this.maxChunks) {
+                    return false;
+                }
+
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * whether a cell is a bomb, worked out without making its chunk
+     *
+     * @param r the row
+     * @param c the column
+     * @return whether the cell is a bomb
+     */
+    public boolean isBomb(int r, int c) {
+
+        if (r >= -1 && r <= 1 && c >= -1 && c <= 1) {
+            return false;
+        }
+
+        long chunk = mix(seed + Chunk.key(r >> Chunk.SHIFT, c >> Chunk.SHIFT) * 0x9E3779B97F4A7C15L);
+        long cell = mix(chunk + Chunk.index(r, c));
+
+        return (cell >>> 11) * 0x1.0p-53 < density;
+    }
+
+    public boolean isOpened(int r, int c) {
+        return (get(r, c) & BoardState.OPENED) != 0;
+    }
+
+    public boolean isFlagged(int r, int c) {
+        return (get(r, c) & BoardState.FLAGGED) != 0;
+    }
+
+    public int getClue(int r, int c) {
+        return get(r, c) & BoardState.CLUE;
+    }
+
+    private int get(int r, int c) {
+        return chunkAt(r, c).cells[Chunk.index(r, c)];
+    }
+
+    /**
+     * opens a cell, which loses the game if it is a bomb
+     *
+     * @param r the row
+     * @param c the column
+     */
+    public void open(int r, int c) {
+
+        if (isOpened(r, c) || isFlagged(r, c)) {
+            return;
+        }
+
+        if (isBomb(r, c)) {
+            setBits(r, c, BoardState.OPENED);
+            lost = true;
+        } else {
+            openSafeCell(r, c);
+        }
+    }
+
+    /**
+     * flags or un-flags a cell which is not opened
+     *
+     * @param r the row
+     * @param c the column
+     */
+    public void flag(int r, int c) {
+
+        Chunk chunk = chunkAt(r, c);
+        int i = Chunk.index(r, c);
+
+        if ((chunk.cells[i] & BoardState.OPENED) != 0) {
+            return;
+        }
+
+        chunk.cells[i] ^= BoardState.FLAGGED;
+        chunk.touched = true;
+        numFlagged += (chunk.cells[i] & BoardState.FLAGGED) != 0 ? 1 : -1;
+    }
+
+    /**
+     * Opens a safe cell, and keeps opening the cells around every opened cell without bombs around it,
+     * into as many chunks as it takes
+     *
+     * @param r the row
+     * @param c the column
+     */
+    public void openSafeCell(int r, int c) {
+
+        if (isBomb(r, c) || isFlagged(r, c) || isOpened(r, c)) {
+            return;
+        }
+
+        openSafe(r, c);
+
+        int size = 0;
+        fillStack[size++] = pack(r, c);
+
+        while (size > 0) {
+
+            long cell = fillStack[--size];
+            int cellR = (int) (cell >> 32);
+            int cellC = (int) cell;
+
+            if (getClue(cellR, cellC) != 0) {
+                continue;
+            }
+
+            for (int newR = cellR - 1; newR <= cellR + 1; newR++) {
+                for (int newC = cellC - 1; newC <= cellC + 1; newC++) {
+
+                    /**
+                     * a cell without bombs around it has no bombs to skip, only flagged and already opened cells
+                     */
+                    int neighbour = get(newR, newC);
+
+                    if ((neighbour & (BoardState.OPENED | BoardState.FLAGGED)) == 0) {
+
+                        openSafe(newR, newC);
+
+                        if (size == fillStack.length) {
+                            fillStack = Arrays.copyOf(fillStack, size * 2);
+                        }
+                        fillStack[size++] = pack(newR, newC);
+                    }
+                }
+            }
+        }
+    }
+
+    private void openSafe(int r, int c) {
+        setBits(r, c, BoardState.OPENED);
+        numOpenedSafe++;
+    }
+
+    private void setBits(int r, int c, int bits) {
+
+        Chunk chunk = chunkAt(r, c);
+        chunk.cells[Chunk.index(r, c)] |= bits;
+        chunk.touched = true;
+    }
+
+    public boolean isLost() {
+        return lost;
+    }
+
+    public long getNumOpenedSafe() {
+        return numOpenedSafe;
+    }
+
+    public long getNumFlagged() {
+        return numFlagged;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getDensity() {
+        return density;
+    }
+
+    /**
+     * @return how many chunks are in memory
+     */
+    public int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * @return how many chunks have been written to disk
+     */
+    public int getSpilledChunks() {
+        return spilled.size();
+    }
+
+    /**
+     * finds the chunk holding a cell, from memory, then from disk, and otherwise by making it
+     */
+    private Chunk chunkAt(int r, int c) {
+
+        int chunkR = r >> Chunk.SHIFT;
+        int chunkC = c >> Chunk.SHIFT;
+
+        if (lastChunk != null && lastChunk.chunkR == chunkR && lastChunk.chunkC == chunkC) {
+            return lastChunk;
+        }
+
+        long key = Chunk.key(chunkR, chunkC);
+        Chunk chunk = chunks.get(key);
+
+        if (chunk == null) {
+
+            chunk = spilled.contains(key) ? read(chunkR, chunkC) : generate(chunkR, chunkC);
+            chunks.put(key, chunk);
+        }
+
+        lastChunk = chunk;
+
+        return chunk;
+    }
+
+    /**
+     * makes a chunk from the seed, with every clue counted from the bombs around it, including those in other chunks
+     */
+    private Chunk generate(int chunkR, int chunkC) {
+
+        byte[] cells = new byte[Chunk.SIZE * Chunk.SIZE];
+        int baseR = chunkR << Chunk.SHIFT;
+        int baseC = chunkC << Chunk.SHIFT;
+
+        /**
+         * the bombs in the chunk and in a ring of cells around it, a row of bits each, so each clue is counted
+         * from the rows of bits either side of it - bit c of a row being the column c - 1 of the chunk
+         */
+        int side = Chunk.SIZE + 2;
+        long[][] bombs = new long[side][2];
+
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                if (isBomb(baseR + r - 1, baseC + c - 1)) {
+                    bombs[r][c >>> 6] |= 1L << c;
+                }
+            }
+        }
+
+        for (int r = 0; r < Chunk.SIZE; r++) {
+
+            NeighbourCounts.countRow(bombs[r], bombs[r + 1], bombs[r + 2], cells, (r << Chunk.SHIFT) - 1, 1, Chunk.SIZE + 1);
+
+            for (long bits = bombs[r + 1][0] >>> 1 | bombs[r + 1][1] << 63; bits != 0; bits &= bits - 1) {
+                cells[r << Chunk.SHIFT | Long.numberOfTrailingZeros(bits)] |= BoardState.BOMB;
+            }
+        }
+
+        return new Chunk(chunkR, chunkC, cells, false);
+    }
+
+    /**
+     * drops a chunk from memory, writing it to disk first if it cannot be made again from the seed
+     */
+    private void evict(Chunk chunk) {
+
+        if (chunk == lastChunk) {
+            lastChunk = null;
+        }
+
+        if (!chunk.touched) {
+            return;
+        }
+
+        try {
+            Files.write(chunkFile(chunk.chunkR, chunk.chunkC), chunk.cells);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not write chunk " + chunk.chunkR + ", " + chunk.chunkC, e);
+        }
+
+        spilled.add(Chunk.key(chunk.chunkR, chunk.chunkC));
+    }
+
+    private Chunk read(int chunkR, int chunkC) {
+
+        try {
+            return new Chunk(chunkR, chunkC, Files.readAllBytes(chunkFile(chunkR, chunkC)), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("could not read chunk " + chunkR + ", " + chunkC, e);
+        }
+    }
+
+    private Path chunkFile(int chunkR, int chunkC) throws IOException {
+
+        if (spillDirectory == null) {
+            spillDirectory = Files.createTempDirectory("minesweeper-chunks");
+            temporary = true;
+            spillDirectory.toFile().deleteOnExit();
+        }
+
+        Path file = spillDirectory.resolve(chunkR + "_" + chunkC + ".chunk");
+
+        /**
+         * a directory is only deleted on exit if it is empty by then, and files are deleted on exit
+         * in the reverse of the order they were marked in, so each chunk is marked to go before its directory -
+         * this cleans up after a board which is never closed
+         */
+        if (temporary) {
+            file.toFile().deleteOnExit();
+        }
+
+        return file;
+    }
+
+    /**
+     * deletes the chunks written to disk, and the spill directory too if the board made it -
+     * the board should not be played on once it is closed, as the cells opened and flagged in those chunks are gone
+     *
+     * @throws IOException if a chunk or the directory cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (spillDirectory == null) {
+            return;
+        }
+
+        for (long key : spilled) {
+            Files.deleteIfExists(chunkFile((int) (key >> 32), (int) key));
+        }
+
+        spilled.clear();
+
+        if (temporary) {
+            Files.deleteIfExists(spillDirectory);
+            spillDirectory = null;
+            temporary = false;
+        }
+    }
+
+    private static long pack(int r, int c) {
+        return (long) r << 32 | (c & 0xFFFFFFFFL);
+    }
+
+    /**
+     * the same mixing function SplittableRandom uses, so that nearby inputs give unrelated outputs
+     */
+    private static long mix(long z) {
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+}
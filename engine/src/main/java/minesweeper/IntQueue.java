@@ -0,0 +1,76 @@
+package minesweeper;
+
+import java.util.NoSuchElementException;
+
+/**
+ * a first-in first-out queue of ints, backed by a ring buffer which only ever grows,
+ * so that cell indices can be queued without boxing them
+ */
+public class IntQueue {
+
+    private int[] elements;
+    private int head, size;
+
+    public IntQueue() {
+        this(16);
+    }
+
+    public IntQueue(int capacity) {
+        this.elements = new int[Math.max(capacity, 1)];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    public void add(int element) {
+
+        if (size == elements.length) {
+
+            int[] grown = new int[elements.length * 2];
+            int firstPart = Math.min(size, elements.length - head);
+
+            System.arraycopy(elements, head, grown, 0, firstPart);
+            System.arraycopy(elements, 0, grown, firstPart, size - firstPart);
+
+            elements = grown;
+            head = 0;
+        }
+
+        /**
+         * wrapped around with a subtraction rather than a remainder, as this is on the solver's hot path
+         */
+        int tail = head + size;
+        elements[tail < elements.length ? tail : tail - elements.length] = element;
+        size++;
+    }
+
+    /**
+     * @return the element at the front of the queue, which is removed
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public int poll() {
+
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+
+        int element = elements[head];
+        head = head + 1 < elements.length ? head + 1 : 0;
+        size--;
+
+        return element;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+}
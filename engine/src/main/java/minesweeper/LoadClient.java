@@ -0,0 +1,276 @@
+package minesweeper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * a stand-in for many players at once, which load tests a GameServer and reports how long its turns take
+ * <p>
+ * the sessions are shared out between a number of connections, each played from a thread of its own. Every session
+ * is opened before any turn is played, so all of them are open at once, then each connection plays a turn on each of
+ * its sessions in turn - opening or flagging a random cell - until every session has played its share of turns.
+ * A session whose game is over is closed and a new one opened in its place, which is not counted as a turn.
+ * <p>
+ * the time of every turn, from sending it to reading its answer, is kept, so the percentiles are exact
+ */
+public class LoadClient {
+
+    private final int port;
+    private final String newCommand;
+
+    /**
+     * @param port       the port the server listens on, on localhost
+     * @param newCommand the command which opens each session, such as "NEW --preset expert"
+     */
+    public LoadClient(int port, String newCommand) {
+        this.port = port;
+        this.newCommand = newCommand;
+    }
+
+    /**
+     * plays turns on many sessions at once
+     *
+     * @param sessions    how many sessions are open at once
+     * @param connections how many connections the sessions are shared out between
+     * @param turns       how many turns each session plays
+     * @param seed        the seed which every connection's cells are picked with
+     * @return the time taken by each turn
+     */
+    public Result run(int sessions, int connections, int turns, long seed) throws InterruptedException {
+
+        long[][] latencies = new long[connections][];
+        Thread[] threads = new Thread[connections];
+        RuntimeException[] failures = new RuntimeException[connections];
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < connections; i++) {
+
+            int connection = i;
+            int share = sessions / connections + (i < sessions % connections ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L));
+
+            threads[i] = Threads.newThread("load-client", () -> {
+                try {
+                    latencies[connection] = play(share, turns, random);
+                } catch (RuntimeException e) {
+                    failures[connection] = e;
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        return new Result(latencies, System.nanoTime() - start);
+    }
+
+    /**
+     * plays the sessions of one connection
+     *
+     * @return the time taken by each turn, in nanoseconds
+     */
+    private long[] play(int sessions, int turns, SplittableRandom random) {
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            socket.setTcpNoDelay(true);
+
+            long[] ids = new long[sessions];
+            int[] rows = new int[sessions];
+            int[] columns = new int[sessions];
+
+            for (int s = 0; s < sessions; s++) {
+                open(in, out, s, ids, rows, columns);
+            }
+
+            long[] latencies = new long[sessions * turns];
+            int played = 0;
+
+            for (int turn = 0; turn < turns; turn++) {
+                for (int s = 0; s < sessions; s++) {
+
+                    String move = random.nextInt(10) == 0 ? "FLAG " : "OPEN ";
+                    String command = move + ids[s] + " " + random.nextInt(rows[s]) + " " + random.nextInt(columns[s]);
+
+                    long sent = System.nanoTime();
+                    String answer = send(in, out, command);
+                    latencies[played++] = System.nanoTime() - sent;
+
+                    if (!answer.startsWith("OK PLAYING")) {
+                        send(in, out, "CLOSE " + ids[s]);
+                        open(in, out, s, ids, rows, columns);
+                    }
+                }
+            }
+
+            send(in, out, "QUIT");
+
+            /**
+             * the sessions still open are closed by whoever runs the server, as a real client would leave them
+             */
+            return latencies;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * opens a session in the given slot, and finds out its size
+     */
+    private void open(BufferedReader in, Writer out, int slot, long[] ids, int[] rows, int[] columns) throws IOException {
+
+        ids[slot] = Long.parseLong(send(in, out, newCommand).substring(3));
+
+        String[] view = send(in, out, "VIEW " + ids[slot]).split(" ");
+        rows[slot] = Integer.parseInt(view[1]);
+        columns[slot] = Integer.parseInt(view[2]);
+    }
+
+    private static String send(BufferedReader in, Writer out, String command) throws IOException {
+
+        out.write(command);
+        out.write('\n');
+        out.flush();
+
+        String answer = in.readLine();
+
+        if (answer == null || answer.startsWith("ERR")) {
+            throw new IllegalStateException(command + " was answered with " + answer);
+        }
+
+        return answer;
+    }
+
+    /**
+     * the time taken by every turn of a load test
+     */
+    public static class Result {
+
+        private final long[] latencies;
+        private final long wallNanos;
+
+        private Result(long[][] latencies, long wallNanos) {
+
+            this.latencies = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            this.wallNanos = wallNanos;
+        }
+
+        public int getTurns() {
+            return latencies.length;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the time which that percentile of turns took at most, in milliseconds
+         */
+        public double getPercentileMillis(double percentile) {
+
+            if (latencies.length == 0) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+
+        /**
+         * @return the turns played per second, over the whole test including opening the sessions
+         */
+        public double getTurnsPerSecond() {
+            return latencies.length / (wallNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d turns, %.0f turns per second, p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms",
+                    getTurns(), getTurnsPerSecond(), getPercentileMillis(50), getPercentileMillis(99),
+                    getPercentileMillis(99.9), getPercentileMillis(100));
+        }
+    }
+
+    /**
+     * load tests a server, starting one in this process unless a port is given
+     *
+     * @param args GameConfig's flags for the board of each session,
+     *             and optionally --port, --sessions, --connections, --turns and --seed
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        GameConfig config;
+        int sessions, connections, turns;
+        long seed;
+        String port;
+
+        try {
+            config = GameConfig.parse(args, GameConfig.EXPERT, "--port", "--sessions", "--connections", "--turns", "--seed");
+
+            String value = GameConfig.option(args, "--sessions");
+            sessions = value == null ? 10_000 : Integer.parseInt(value);
+
+            value = GameConfig.option(args, "--connections");
+            connections = value == null ? 100 : Integer.parseInt(value);
+
+            value = GameConfig.option(args, "--turns");
+            turns = value == null ? 20 : Integer.parseInt(value);
+
+            value = GameConfig.option(args, "--seed");
+            seed = value == null ? 0 : Long.parseLong(value);
+
+            port = GameConfig.option(args, "--port");
+
+            if (sessions < 1 || connections < 1 || connections > sessions || turns < 0) {
+                throw new IllegalArgumentException("invalid sessions, connections or turns: "
+                        + sessions + ", " + connections + ", " + turns);
+            }
+
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println("usage: LoadClient [GameConfig's flags] [--port N] [--sessions N] [--connections N]"
+                    + " [--turns N] [--seed N]");
+            return;
+        }
+
+        String newCommand = "NEW --rows " + config.getRows() + " --columns " + config.getColumns()
+                + " --bombs " + config.getNumBombs() + (config.isNoGuess() ? " --no-guess" : "");
+
+        GameServer server = null;
+
+        if (port == null) {
+            int cells = config.getRows() * config.getColumns();
+            server = new GameServer(new SessionManager(sessions * 2, Math.max(SessionManager.DEFAULT_MAX_CELLS, cells),
+                    Math.max(SessionManager.DEFAULT_MAX_TOTAL_CELLS, 2L * sessions * cells)), 0, seed);
+            server.start();
+        }
+
+        LoadClient client = new LoadClient(server == null ? Integer.parseInt(port) : server.getPort(), newCommand);
+        System.out.println(sessions + " sessions of " + config + " over " + connections + " connections: "
+                + client.run(sessions, connections, turns, seed));
+
+        if (server != null) {
+            server.close();
+        }
+    }
+
+}
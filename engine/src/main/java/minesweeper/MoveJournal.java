@@ -0,0 +1,456 @@
+package minesweeper;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * every turn applied to a game, in order, along with what is needed to make the game's board again,
+ * so that any game can be played back exactly - see Replay
+ * <p>
+ * a journal is written as it is played, by adding a Writer to the game. It is appended to as turns are applied,
+ * and cut back as they are taken back, so it always holds the turns which stand. Every number is a varint, seven bits to a byte with the high bit set on all but the last byte,
+ * so most turns take four or five bytes
+ * <pre>
+ * int     MAGIC
+ * byte    VERSION
+ * byte    1 if the bombs are placed without guesses, otherwise 0 (from version 2)
+ * varint  rows, columns, number of bombs
+ * long    seed
+ * then for each turn:
+ * varint  row, column
+ * byte    move
+ * varint  milliseconds since the turn before
+ * </pre>
+ * a board whose bombs were placed from a layout rather than from its seed, such as one from a BoardPool,
+ * has its layout written just before the turn which placed it (from version 3), as a turn of 0, 0 with the move
+ * LAYOUT followed by a varint count of bombs and the varint gap from each bomb's index to the one before
+ * a journal cut short part way through a turn, such as by a crash, is read up to the last whole turn
+ */
+public class MoveJournal {
+
+    static final int MAGIC = 0x4D534A4C;
+    static final int VERSION = 3;
+    static final int LAYOUT = 0x7F;
+
+    private final int rows, columns, numBombs;
+    private final long seed;
+    private final boolean noGuess;
+    /**
+     * the bombs, if they were placed from a layout rather than from the seed, otherwise null
+     */
+    private long[] layout;
+
+    /**
+     * the turns, one entry per turn in each array
+     */
+    private int size;
+    private int[] turnRows, turnColumns;
+    private byte[] moves;
+    private long[] deltas;
+
+    MoveJournal(int rows, int columns, int numBombs, long seed, boolean noGuess) {
+
+        this.rows = rows;
+        this.columns = columns;
+        this.numBombs = numBombs;
+        this.seed = seed;
+        this.noGuess = noGuess;
+
+        this.size = 0;
+        this.turnRows = new int[16];
+        this.turnColumns = new int[16];
+        this.moves = new byte[16];
+        this.deltas = new long[16];
+    }
+
+    /**
+     * @return a game on the same board as the journal's, before any turns are played
+     */
+    public Game newGame() {
+
+        Board board = new Board(rows, columns, numBombs, seed, noGuess);
+
+        if (layout != null) {
+            board.presetLayout(layout);
+        }
+
+        return new Game(board);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Turn getTurn(int turn) {
+        return new Turn(turnRows[turn], turnColumns[turn], moves[turn]);
+    }
+
+    /**
+     * @param turn the index of the turn
+     * @return how many milliseconds passed between the turn before and this one
+     */
+    public long getDelta(int turn) {
+        return deltas[turn];
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getNumBombs() {
+        return numBombs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isNoGuess() {
+        return noGuess;
+    }
+
+    private void add(int r, int c, int move, long delta) {
+
+        if (size == moves.length) {
+            turnRows = Arrays.copyOf(turnRows, size * 2);
+            turnColumns = Arrays.copyOf(turnColumns, size * 2);
+            moves = Arrays.copyOf(moves, size * 2);
+            deltas = Arrays.copyOf(deltas, size * 2);
+        }
+
+        turnRows[size] = r;
+        turnColumns[size] = c;
+        moves[size] = (byte) move;
+        deltas[size] = delta;
+        size++;
+    }
+
+    /**
+     * reads a journal written by a Writer
+     *
+     * @param path the file to read
+     * @return the journal
+     * @throws IOException if the file cannot be read, or is not a journal of a version which can be read
+     */
+    public static MoveJournal read(Path path) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    static MoveJournal read(ByteBuffer buffer) throws IOException {
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a move journal");
+            }
+
+            int version = buffer.get();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("unsupported journal version " + version);
+            }
+
+            boolean noGuess = version >= 2 && buffer.get() != 0;
+
+            MoveJournal journal = new MoveJournal((int) readVarint(buffer), (int) readVarint(buffer),
+                    (int) readVarint(buffer), buffer.getLong(), noGuess);
+
+            /**
+             * only whole turns are kept, so that a journal which was being written when it was cut short can still be read
+             */
+            while (buffer.hasRemaining()) {
+
+                int start = buffer.position();
+
+                try {
+                    int r = (int) readVarint(buffer);
+                    int c = (int) readVarint(buffer);
+                    int move = buffer.get();
+
+                    if (move == LAYOUT) {
+                        journal.layout = readLayout(buffer, journal.rows * journal.columns);
+                    } else {
+                        journal.add(r, c, move, readVarint(buffer));
+                    }
+                } catch (BufferUnderflowException e) {
+                    buffer.position(start);
+                    break;
+                }
+            }
+
+            return journal;
+
+        } catch (BufferUnderflowException e) {
+            throw new IOException("move journal is missing its header", e);
+        }
+    }
+
+    private static long[] readLayout(ByteBuffer buffer, int cells) {
+
+        long[] bombs = new long[(cells + 63) >>> 6];
+        long count = readVarint(buffer);
+        int index = -1;
+
+        for (long i = 0; i < count; i++) {
+            index += (int) readVarint(buffer);
+            bombs[index >>> 6] |= 1L << index;
+        }
+
+        return bombs;
+    }
+
+    static long readVarint(ByteBuffer buffer) {
+
+        long value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.write((int) value);
+    }
+
+    /**
+     * appends each turn applied to a game to a journal as it is played
+     * <p>
+     * each turn is flushed as soon as it is written, so the journal is whole up to the last turn even if the program
+     * does not exit cleanly
+     * <p>
+     * a journal written to a file remembers where each turn starts, so that a turn taken back with UndoHistory can be
+     * cut off the end of the file with takeBack, and written again with putBack if it is redone
+     */
+    public static class Writer implements TurnListener, Closeable {
+
+        private final OutputStream out;
+        /**
+         * the file being written, or null if the journal is written to a stream, which cannot be cut back
+         */
+        private final FileChannel channel;
+        private final Board board;
+        private long lastMillis;
+        private boolean layoutWritten;
+
+        /**
+         * every turn written, with its gap from the turn before and where it starts in the file, the first size
+         * of them being in the file and the rest having been taken back, latest last, to be put back
+         */
+        private Turn[] turns;
+        private long[] turnDeltas, starts;
+        private int size, end;
+        /**
+         * the turn which the layout was written just before, or -1 if it has not been written
+         */
+        private int layoutTurn;
+
+        /**
+         * starts a new journal for a game which has not been played yet, replacing anything already in the file
+         *
+         * @param path  the file to write
+         * @param board the board the game is played on
+         * @throws IOException if the file cannot be written
+         */
+        public Writer(Path path, Board board) throws IOException {
+            this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING), board);
+        }
+
+        private Writer(FileChannel channel, Board board) throws IOException {
+            this(Channels.newOutputStream(channel), channel, board);
+        }
+
+        Writer(OutputStream out, Board board) throws IOException {
+            this(out, null, board);
+        }
+
+        private Writer(OutputStream out, FileChannel channel, Board board) throws IOException {
+
+            this.out = new BufferedOutputStream(out);
+            this.channel = channel;
+            this.board = board;
+            this.lastMillis = System.currentTimeMillis();
+
+            this.turns = new Turn[16];
+            this.turnDeltas = new long[16];
+            this.starts = new long[16];
+            this.layoutTurn = -1;
+
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                this.out.write(MAGIC >>> shift);
+            }
+            this.out.write(VERSION);
+            this.out.write(board.isNoGuess() ? 1 : 0);
+
+            writeVarint(this.out, board.getRows());
+            writeVarint(this.out, board.getColumns());
+            writeVarint(this.out, board.getNumBombs());
+
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.out.write((int) (board.getSeed() >>> shift));
+            }
+
+            this.out.flush();
+        }
+
+        public void turnApplied(Turn turn) {
+            append(turn, System.currentTimeMillis());
+        }
+
+        /**
+         * @param turn       the turn which was applied
+         * @param timeMillis when it was applied
+         */
+        public void append(Turn turn, long timeMillis) {
+
+            /**
+             * a new turn means the turns taken back can no longer be put back
+             */
+            end = size;
+
+            write(turn, Math.max(0, timeMillis - lastMillis));
+
+            lastMillis = timeMillis;
+        }
+
+        /**
+         * cuts the latest turn off the end of the journal, for when it is taken back
+         *
+         * @return whether there was a turn to take back
+         * @throws UnsupportedOperationException if the journal is not written to a file
+         */
+        public boolean takeBack() {
+
+            if (channel == null) {
+                throw new UnsupportedOperationException("only a journal written to a file can take back turns");
+            }
+            if (size == 0) {
+                return false;
+            }
+
+            size--;
+
+            /**
+             * taking back the first turn takes the bombs back off of the board, so its layout goes with it
+             */
+            if (layoutTurn == size) {
+                layoutTurn = -1;
+                layoutWritten = false;
+            }
+
+            try {
+                out.flush();
+                channel.truncate(starts[size]);
+                channel.position(starts[size]);
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not cut back the move journal", e);
+            }
+
+            return true;
+        }
+
+        /**
+         * writes the latest turn taken back onto the end of the journal again, for when it is redone
+         *
+         * @return whether there was a turn to put back
+         */
+        public boolean putBack() {
+
+            if (size == end) {
+                return false;
+            }
+
+            write(turns[size], turnDeltas[size]);
+
+            return true;
+        }
+
+        /**
+         * writes a turn, and the layout just before it if the turn placed the bombs from one
+         */
+        private void write(Turn turn, long delta) {
+
+            if (size == turns.length) {
+                turns = Arrays.copyOf(turns, size * 2);
+                turnDeltas = Arrays.copyOf(turnDeltas, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+            }
+
+            try {
+                if (channel != null) {
+                    out.flush();
+                    starts[size] = channel.position();
+                }
+
+                if (!layoutWritten && board.isFromLayout()) {
+                    writeLayout();
+                    layoutTurn = size;
+                }
+
+                writeVarint(out, turn.getRow());
+                writeVarint(out, turn.getColumn());
+                out.write(turn.getMove());
+                writeVarint(out, delta);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not write to the move journal", e);
+            }
+
+            turns[size] = turn;
+            turnDeltas[size] = delta;
+            size++;
+            end = Math.max(end, size);
+        }
+
+        private void writeLayout() throws IOException {
+
+            BoardState state = board.getState();
+
+            writeVarint(out, 0);
+            writeVarint(out, 0);
+            out.write(LAYOUT);
+            writeVarint(out, state.getNumBombs());
+
+            int last = -1;
+            for (int i = 0; i < state.size(); i++) {
+                if (state.isBomb(i)) {
+                    writeVarint(out, i - last);
+                    last = i;
+                }
+            }
+
+            layoutWritten = true;
+        }
+
+        public void close() throws IOException {
+            out.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,254 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * counts, for every cell of a grid, how many of its eight neighbours have a bit set - such as how many bombs are around
+ * each cell, which is its clue - a whole row at a time
+ * <p>
+ * each row is kept as bits, 64 cells to a long, cell c being bit c & 63 of word c >>> 6. Shifting a row's words one
+ * place left or right lines each cell up with its neighbour, and the neighbours are summed with a bit-sliced adder -
+ * the n-th bit of each cell's count is kept in a plane of its own, so the and, or and xor of a few words add up
+ * the neighbours of 64 cells at once, with no branches and no bounds checks. The four planes are then spread out into
+ * a byte per cell, eight cells at a time.
+ * <p>
+ * a grid of a single column is counted a cell at a time instead, as the work per row of setting up the planes
+ * costs more than it saves when a row is one cell - see NeighbourCountBenchmark for where that is
+ */
+final class NeighbourCounts {
+
+    /**
+     * the fewest columns a grid has for its rows to be counted as bits
+     */
+    static final int SWAR_COLUMNS = 2;
+
+    /**
+     * writes eight bytes into a byte array at once, in the order the cells are laid out
+     */
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * each of the 256 values of eight bits, with bit k moved to the low bit of byte k
+     */
+    private static final long[] SPREAD = new long[256];
+
+    static {
+        for (int bits = 0; bits < 256; bits++) {
+            for (int k = 0; k < 8; k++) {
+                if ((bits >>> k & 1) != 0) {
+                    SPREAD[bits] |= 1L << (k << 3);
+                }
+            }
+        }
+    }
+
+    private NeighbourCounts() {
+    }
+
+    /**
+     * counts the set neighbours of a range of cells of a grid
+     *
+     * @param bitmap  a bit for every cell of the grid, laid out row by row as BoardState.toBitmap lays them out
+     * @param rows    the rows of the grid
+     * @param columns the columns of the grid
+     * @param from    the first cell to count
+     * @param to      the cell after the last to count
+     * @param out     where each count is written, out[i] being the count of cell i - the cells outside the range are left as they are
+     */
+    static void count(long[] bitmap, int rows, int columns, int from, int to, byte[] out) {
+
+        if (columns < SWAR_COLUMNS) {
+            countScalar(bitmap, rows, columns, from, to, out);
+        } else {
+            countSwar(bitmap, rows, columns, from, to, out);
+        }
+    }
+
+    /**
+     * as count, always a row of bits at a time
+     */
+    static void countSwar(long[] bitmap, int rows, int columns, int from, int to, byte[] out) {
+
+        if (from >= to) {
+            return;
+        }
+
+        int words = (columns + 63) >>> 6;
+        int firstRow = from / columns;
+        int lastRow = (to - 1) / columns;
+
+        long[] above = new long[words];
+        long[] row = new long[words];
+        long[] below = new long[words];
+
+        if (firstRow > 0) {
+            extract(bitmap, firstRow - 1, columns, above);
+        }
+        extract(bitmap, firstRow, columns, row);
+
+        for (int r = firstRow; r <= lastRow; r++) {
+
+            if (r + 1 < rows) {
+                extract(bitmap, r + 1, columns, below);
+            } else {
+                Arrays.fill(below, 0);
+            }
+
+            int start = r * columns;
+            countRow(above, row, below, out, start,
+                    Math.max(from - start, 0), Math.min(to - start, columns));
+
+            /**
+             * the rows move up one, the old row above being reused for the next row below
+             */
+            long[] spare = above;
+            above = row;
+            row = below;
+            below = spare;
+        }
+    }
+
+    /**
+     * counts the set neighbours of a range of cells in one row, from the bits of that row and the rows either side
+     *
+     * @param above  the row above, all zero if there is none
+     * @param row    the row itself, with no bits set past its last column
+     * @param below  the row below, all zero if there is none
+     * @param out    where each count is written, the count of column c being written to out[offset + c]
+     * @param offset the index in out of the row's first column
+     * @param lo     the first column to count
+     * @param hi     the column after the last to count
+     */
+    static void countRow(long[] above, long[] row, long[] below, byte[] out, int offset, int lo, int hi) {
+
+        int words = row.length;
+
+        for (int k = lo >>> 6; k < words && k << 6 < hi; k++) {
+
+            long a = above[k], b = below[k];
+            long aL = a << 1, aR = a >>> 1, bL = b << 1, bR = b >>> 1;
+            long rL = row[k] << 1, rR = row[k] >>> 1;
+
+            /**
+             * the neighbours in column c - 1 are shifted up into bit c, carrying in the last bit of the word before,
+             * and those in column c + 1 down, carrying in the first bit of the word after
+             */
+            if (k > 0) {
+                aL |= above[k - 1] >>> 63;
+                bL |= below[k - 1] >>> 63;
+                rL |= row[k - 1] >>> 63;
+            }
+            if (k + 1 < words) {
+                aR |= above[k + 1] << 63;
+                bR |= below[k + 1] << 63;
+                rR |= row[k + 1] << 63;
+            }
+
+            /**
+             * the three cells above, the three below, and the two beside each cell, each summed into two bits
+             */
+            long a0 = aL ^ a ^ aR, a1 = (aL & a) | (aR & (aL ^ a));
+            long b0 = bL ^ b ^ bR, b1 = (bL & b) | (bR & (bL ^ b));
+            long r0 = rL ^ rR, r1 = rL & rR;
+
+            /**
+             * the three two bit sums added together, into four bits
+             */
+            long p0 = a0 ^ b0 ^ r0;
+            long carry0 = (a0 & b0) | (r0 & (a0 ^ b0));
+            long t = a1 ^ b1 ^ r1;
+            long carry1 = (a1 & b1) | (r1 & (a1 ^ b1));
+            long p1 = t ^ carry0;
+            long carry2 = t & carry0;
+            long p2 = carry1 ^ carry2;
+            long p3 = carry1 & carry2;
+
+            spread(p0, p1, p2, p3, out, offset + (k << 6), Math.max(lo - (k << 6), 0), Math.min(hi - (k << 6), 64));
+        }
+    }
+
+    /**
+     * writes the counts held in four planes out as a byte each
+     *
+     * @param lo the first bit of the planes to write
+     * @param hi the bit after the last to write
+     */
+    private static void spread(long p0, long p1, long p2, long p3, byte[] out, int offset, int lo, int hi) {
+
+        for (int bit = lo & ~7; bit < hi; bit += 8) {
+
+            long counts = SPREAD[(int) (p0 >>> bit) & 0xFF]
+                    | SPREAD[(int) (p1 >>> bit) & 0xFF] << 1
+                    | SPREAD[(int) (p2 >>> bit) & 0xFF] << 2
+                    | SPREAD[(int) (p3 >>> bit) & 0xFF] << 3;
+
+            if (bit >= lo && bit + 8 <= hi) {
+                LONGS.set(out, offset + bit, counts);
+                continue;
+            }
+
+            /**
+             * the group runs past the range, so only its cells inside the range are written
+             */
+            for (int c = Math.max(bit, lo); c < Math.min(bit + 8, hi); c++) {
+                out[offset + c] = (byte) (counts >>> ((c - bit) << 3));
+            }
+        }
+    }
+
+    /**
+     * copies one row of a bitmap into words of its own, starting from bit 0
+     */
+    static void extract(long[] bitmap, int r, int columns, long[] row) {
+
+        long start = (long) r * columns;
+
+        for (int k = 0; k < row.length; k++) {
+
+            long bit = start + ((long) k << 6);
+            int word = (int) (bit >>> 6);
+            int shift = (int) bit & 63;
+
+            long bits = bitmap[word] >>> shift;
+            if (shift != 0 && word + 1 < bitmap.length) {
+                bits |= bitmap[word + 1] << (64 - shift);
+            }
+
+            row[k] = bits;
+        }
+
+        if ((columns & 63) != 0) {
+            row[row.length - 1] &= (1L << columns) - 1;
+        }
+    }
+
+    /**
+     * as count, always a cell at a time
+     */
+    static void countScalar(long[] bitmap, int rows, int columns, int from, int to, byte[] out) {
+
+        for (int i = from; i < to; i++) {
+
+            int r = i / columns;
+            int c = i % columns;
+            int count = 0;
+
+            for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+                for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                    int newI = newR * columns + newC;
+
+                    if (newI != i && (bitmap[newI >>> 6] >>> newI & 1) != 0) {
+                        count++;
+                    }
+                }
+            }
+
+            out[i] = (byte) count;
+        }
+    }
+
+}
@@ -0,0 +1,421 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * places bombs so that a board can be solved from its first click by the Solver alone, without ever guessing
+ * <p>
+ * bombs are first placed at random, then the board is played by the solver. Wherever the solver gets stuck,
+ * one clue on the edge of what is opened is picked, and the bombs in its undeduced cells are moved away into
+ * cells nowhere near anything opened (or bombs are moved into them, if there is nowhere to move them to),
+ * so the clue gives its cells away, and the solver carries on from where it was.
+ * Once a layout has been played through, it is played once more from scratch, without any moves,
+ * and it is only kept if that succeeds.
+ * <p>
+ * a layout depends only on the board's size, bombs, seed and first click, so a board can be made again
+ * from its seed. A layout is tried from a series of seeds derived from the board's, and to find one sooner the seeds
+ * are tried a wave at a time, one per thread - the first seed in the series which gives a layout is always the one
+ * kept, however many threads there are, so the same board comes out as if they were tried one by one.
+ * As with Stripes, a wave started from inside a ForkJoinPool runs on that pool's threads, otherwise on the common pool
+ */
+public class NoGuessGenerator {
+
+    /**
+     * how many seeds, derived from the board's, are tried before giving up on a layout
+     */
+    static final int MAX_ATTEMPTS = 16;
+    /**
+     * how many times a layout is played through and repaired before it is given up on
+     */
+    static final int MAX_ROUNDS = 16;
+
+    private NoGuessGenerator() {
+    }
+
+    /**
+     * finds where the bombs go on a board which can be solved without guessing, trying a wave of seeds at once
+     * when there are threads to run them on
+     *
+     * @param rows     the rows of the board
+     * @param columns  the columns of the board
+     * @param numBombs the bombs on the board
+     * @param seed     the seed of the board, which the seed of every attempt is derived from
+     * @param r        the row of the first click
+     * @param c        the column of the first click
+     * @return the bitmap of bombs, as packed by BoardState.toBitmap, or null if none was found
+     */
+    static long[] layout(int rows, int columns, int numBombs, long seed, int r, int c) {
+
+        int threads = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+
+        if (threads < 2) {
+
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+
+                long[] bombs = attempt(rows, columns, numBombs, attemptSeed(seed, attempt), r, c);
+
+                if (bombs != null || Thread.currentThread().isInterrupted()) {
+                    return bombs;
+                }
+            }
+
+            return null;
+        }
+
+        for (int first = 0; first < MAX_ATTEMPTS; first += threads) {
+
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+
+            List<ForkJoinTask<long[]>> wave = new ArrayList<>();
+
+            for (int attempt = first; attempt < Math.min(first + threads, MAX_ATTEMPTS); attempt++) {
+
+                long attemptSeed = attemptSeed(seed, attempt);
+                wave.add(ForkJoinTask.adapt(() -> attempt(rows, columns, numBombs, attemptSeed, r, c)));
+            }
+
+            ForkJoinTask.invokeAll(wave);
+
+            /**
+             * the earliest attempt which succeeded, not whichever finished first, so the seed alone decides the board
+             */
+            for (ForkJoinTask<long[]> attempt : wave) {
+                if (attempt.join() != null) {
+                    return attempt.join();
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * the seed of one attempt at a layout, the first being the board's own
+     */
+    private static long attemptSeed(long seed, int attempt) {
+        return attempt == 0 ? seed : mix(seed + attempt * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * places bombs at random from one seed, then plays and repairs the layout until it needs no repairs
+     *
+     * @return the bitmap of bombs, or null if this seed gave no layout without guesses
+     */
+    private static long[] attempt(int rows, int columns, int numBombs, long attemptSeed, int r, int c) {
+
+        Board board = new Board(rows, columns, numBombs, attemptSeed);
+        board.placeBombs(r, c);
+
+        long[] bombs = board.getState().toBitmap(BoardState.BOMB);
+        SplittableRandom random = new SplittableRandom(attemptSeed);
+
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+
+            BoardState state = new BoardState(rows, columns);
+            state.restore(bombs, new long[bombs.length], new long[bombs.length]);
+            Board trial = new Board(state, numBombs, attemptSeed, true, false);
+
+            int repairs = solve(trial, r, c, random);
+
+            if (repairs == 0) {
+                return bombs;
+            }
+            if (repairs < 0) {
+                return null;
+            }
+
+            bombs = state.toBitmap(BoardState.BOMB);
+        }
+
+        return null;
+    }
+
+    /**
+     * plays a board with the solver from the first click, repairing the layout wherever the solver gets stuck
+     *
+     * @return how many repairs were needed, or -1 if the solver got stuck somewhere which could not be repaired
+     */
+    private static int solve(Board board, int r, int c, SplittableRandom random) {
+
+        BoardState state = board.getState();
+        Solver solver = new Solver(board);
+        OpenedClues clues = new OpenedClues(state);
+
+        state.addListener(clues);
+        board.openSafeCell(r, c);
+
+        int repairs = 0;
+
+        while (!board.allButBombsOpened()) {
+
+            if (Thread.currentThread().isInterrupted()) {
+                return -1;
+            }
+
+            int safe = solver.nextSafeCell();
+
+            if (safe != -1) {
+                board.openSafeCell(safe / state.getColumns(), safe % state.getColumns());
+                continue;
+            }
+
+            /**
+             * deduced bombs are never flagged, they only need to be known to the solver
+             */
+            solver.skipBombCells();
+
+            if (solver.deduce()) {
+                continue;
+            }
+
+            if (!repair(board, solver, clues, random)) {
+                return -1;
+            }
+
+            repairs++;
+        }
+
+        solver.detach();
+        state.removeListener(clues);
+
+        return repairs;
+    }
+
+    /**
+     * picks a clue on the edge of what is opened, whose undeduced cells hold a bomb,
+     * and moves bombs so that all of those cells become safe, or failing that, all of them become bombs
+     *
+     * @return whether anything could be repaired
+     */
+    private static boolean repair(Board board, Solver solver, OpenedClues clues, SplittableRandom random) {
+
+        BoardState state = board.getState();
+
+        int clue = clues.pick(solver, random);
+
+        if (clue == -1) {
+            return false;
+        }
+
+        int[] unknown = new int[8];
+        int numUnknown = 0, numBombs = 0;
+
+        int columns = state.getColumns();
+        int clueR = clue / columns;
+        int clueC = clue % columns;
+
+        for (int newR = Math.max(clueR - 1, 0); newR <= Math.min(clueR + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(clueC - 1, 0); newC <= Math.min(clueC + 1, columns - 1); newC++) {
+
+                int i = state.index(newR, newC);
+
+                if (solver.isUnknown(i)) {
+                    unknown[numUnknown++] = i;
+                    if (state.isBomb(i)) {
+                        numBombs++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * the cells which bombs can be moved to or taken from - closed, undeduced, and not next to anything opened
+         * or to the clue's own cells, so that moving a bomb there changes no clue which can be seen
+         */
+        int[] away = farCells(state, solver, clue, false);
+
+        if (away.length >= numBombs) {
+
+            shuffle(away, random);
+
+            int next = 0;
+            for (int j = 0; j < numUnknown; j++) {
+                if (state.isBomb(unknown[j])) {
+                    moveBomb(state, solver, unknown[j], away[next++]);
+                }
+            }
+
+            return true;
+        }
+
+        int[] from = farCells(state, solver, clue, true);
+
+        if (from.length >= numUnknown - numBombs) {
+
+            shuffle(from, random);
+
+            int next = 0;
+            for (int j = 0; j < numUnknown; j++) {
+                if (!state.isBomb(unknown[j])) {
+                    moveBomb(state, solver, from[next++], unknown[j]);
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static void moveBomb(BoardState state, Solver solver, int from, int to) {
+
+        state.moveBomb(from, to);
+
+        solver.bombMoved(from);
+        solver.bombMoved(to);
+    }
+
+    private static boolean hasUnknownBomb(BoardState state, Solver solver, int index) {
+
+        int columns = state.getColumns();
+        int r = index / columns;
+        int c = index % columns;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int i = state.index(newR, newC);
+
+                if (solver.isUnknown(i) && state.isBomb(i)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param clue  the clue being repaired, whose surroundings are left alone
+     * @param bombs whether to find cells holding a bomb, or cells without one
+     * @return the undeduced, closed cells which are at least two cells from anything opened and from the clue's cells
+     */
+    private static int[] farCells(BoardState state, Solver solver, int clue, boolean bombs) {
+
+        int[] cells = new int[64];
+        int size = 0;
+
+        int columns = state.getColumns();
+        int clueR = clue / columns;
+        int clueC = clue % columns;
+
+        /**
+         * the undeduced cells away from the frontier are found a word of the solver's bits at a time -
+         * nothing but clues is ever opened while generating, so those are the cells not next to anything opened
+         */
+        Frontier frontier = solver.getFrontier();
+
+        for (int i = frontier.nextInterior(0); i != -1; i = frontier.nextInterior(i + 1)) {
+
+            if (state.isBomb(i) != bombs) {
+                continue;
+            }
+
+            int r = i / columns;
+            int c = i % columns;
+
+            if (Math.abs(r - clueR) <= 2 && Math.abs(c - clueC) <= 2) {
+                continue;
+            }
+
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, size * 2);
+            }
+            cells[size++] = i;
+        }
+
+        return Arrays.copyOf(cells, size);
+    }
+
+    /**
+     * the clues opened so far, kept as they are opened so that a clue to repair is picked without looking over
+     * the whole board
+     * <p>
+     * a clue is only picked while the solver is stuck, when every clue with an undeduced cell around it
+     * has an undeduced bomb there too, as otherwise its cells would be deduced safe. So a clue found with no
+     * undeduced bomb has nothing undeduced around it, which it never will again, and it is dropped for good -
+     * each clue is looked at and dropped at most once, however many repairs there are
+     */
+    private static class OpenedClues implements BoardListener {
+
+        private final BoardState state;
+        private int[] clues;
+        private int size;
+
+        private OpenedClues(BoardState state) {
+            this.state = state;
+            this.clues = new int[64];
+        }
+
+        @Override
+        public void cellOpened(int index) {
+
+            if (state.isBomb(index) || state.getClue(index) == 0) {
+                return;
+            }
+
+            if (size == clues.length) {
+                clues = Arrays.copyOf(clues, size * 2);
+            }
+            clues[size++] = index;
+        }
+
+        /**
+         * @return a random opened clue with an undeduced bomb among its cells, or -1 if there is none
+         */
+        private int pick(Solver solver, SplittableRandom random) {
+
+            while (size > 0) {
+
+                int j = random.nextInt(size);
+                int clue = clues[j];
+
+                if (hasUnknownBomb(state, solver, clue)) {
+                    return clue;
+                }
+
+                /**
+                 * the clue is swapped out for the last one, so the rest are still picked from evenly
+                 */
+                clues[j] = clues[--size];
+            }
+
+            return -1;
+        }
+    }
+
+    private static void shuffle(int[] cells, SplittableRandom random) {
+
+        for (int i = cells.length - 1; i > 0; i--) {
+
+            int j = random.nextInt(i + 1);
+            int swap = cells[i];
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+    }
+
+    /**
+     * the same mixing function SplittableRandom uses, so that nearby seeds give unrelated seeds
+     */
+    private static long mix(long z) {
+
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -1,3 +1,5 @@
+package minesweeper;
+
 /**
  * an interface which defines a viable player as something which can decide on a Turn given a board
  */
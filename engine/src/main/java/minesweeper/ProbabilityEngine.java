@@ -0,0 +1,1049 @@
+package minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * works out the chance of each closed cell being a bomb, for when nothing more can be deduced and a guess is needed
+ * <p>
+ * the closed cells next to an opened clue (the frontier) are split into components, cells which share no clue with
+ * each other being independent. Each component's arrangements of bombs are counted a cell at a time, and the counts are
+ * combined with the number of ways the rest of the bombs can sit in the cells away from the frontier (the interior).
+ * Arrangements of the cells so far which leave the clues still open needing the same bombs are counted together,
+ * so a long component costs about as much as the ways its clues can be left open, rather than its arrangements.
+ * A component which can't be counted within its share of the time budget is sampled instead.
+ * <p>
+ * components whose clues haven't changed are remembered between calls, so a guess only costs the components which did
+ */
+public class ProbabilityEngine {
+
+    /**
+     * how many steps of backtracking are taken between checks of the budget
+     */
+    private static final int CHECK_INTERVAL = 1 << 10;
+    /**
+     * how many steps a single sample may take before it is abandoned
+     */
+    private static final int SAMPLE_STEPS_PER_CELL = 64;
+    /**
+     * how many samples are taken of a component which couldn't be counted, however little budget is left
+     */
+    private static final int MIN_SAMPLES = 32;
+    /**
+     * the most counts kept while counting a component, about 32 megabytes, past which it is sampled instead
+     */
+    private static final long MAX_WAYS = 1 << 22;
+
+    /**
+     * the time given to counting arrangements on each call, in nanoseconds, and as long again for sampling
+     */
+    private long timeBudget;
+    /**
+     * if positive, a budget of backtracking steps used instead of the time budget,
+     * so that the chances come out the same however fast the machine is
+     */
+    private long stepBudget;
+    private SplittableRandom random;
+
+    /**
+     * the counted components of the last call, by their cells and clues
+     */
+    private Map<ComponentKey, Component> memo;
+
+    /**
+     * the frontier cells, in ascending order of index, and the chance of each one being a bomb
+     */
+    private int[] frontier;
+    private double[] probabilities;
+
+    private int interiorCount;
+    private double interiorProbability;
+
+    /**
+     * whether any component had to be sampled on the last call, making its chances approximate
+     */
+    private boolean approximate;
+
+    private long start;
+    private long steps;
+
+    /**
+     * the share of the budget given to the component being counted, and the budget used when it was started -
+     * each component gets at least an even share, and more if those before it left some over
+     */
+    private long slice, sliceStart;
+
+    public ProbabilityEngine(long timeBudgetMillis, long seed) {
+
+        this.timeBudget = timeBudgetMillis * 1_000_000L;
+        this.random = new SplittableRandom(seed);
+        this.memo = new HashMap<>();
+
+        this.frontier = new int[0];
+        this.probabilities = new double[0];
+    }
+
+    /**
+     * works out the chances for every closed cell which the solver knows nothing about
+     *
+     * @param board  the board being played
+     * @param solver the solver following the board, whose deduced bombs are left out of the chances
+     */
+    public void compute(Board board, Solver solver) {
+
+        BoardState state = board.getState();
+
+        start = System.nanoTime();
+        steps = 0;
+        approximate = false;
+
+        /**
+         * gathering the clues which still have unknown cells around them, and the unknown cells themselves,
+         * from the solver's bits a word at a time
+         */
+        Frontier bits = solver.getFrontier();
+
+        int unknown = bits.countUnknown();
+        int knownBombs = bits.countKnownBombs();
+        int[] clueCells = bits.unsolvedClues();
+
+        frontier = bits.unknownFrontier();
+        probabilities = new double[frontier.length];
+
+        interiorCount = unknown - frontier.length;
+        int bombsLeft = board.getNumBombs() - knownBombs;
+
+        /**
+         * each clue becomes a constraint on the frontier cells around it
+         */
+        int[][] constraintCells = new int[clueCells.length][];
+        int[] constraintNeeds = new int[clueCells.length];
+
+        for (int k = 0; k < clueCells.length; k++) {
+            constraintCells[k] = frontierAround(state, solver, clueCells[k]);
+            constraintNeeds[k] = state.getClue(clueCells[k]) - countKnownBombsAround(state, solver, clueCells[k]);
+        }
+
+        List<Component> components = splitComponents(constraintCells, constraintNeeds);
+
+        combine(components, bombsLeft);
+    }
+
+    /**
+     * replaces the time budget with a budget of backtracking steps, making the chances reproducible
+     *
+     * @param stepBudget the steps each call may spend counting, or 0 to go back to the time budget
+     */
+    public void setStepBudget(long stepBudget) {
+        this.stepBudget = stepBudget;
+    }
+
+    public int[] getFrontier() {
+        return frontier;
+    }
+
+    /**
+     * @param position the position of a cell in getFrontier()
+     * @return the chance of that cell being a bomb
+     */
+    public double getProbability(int position) {
+        return probabilities[position];
+    }
+
+    /**
+     * @param index the index of a cell
+     * @return if the cell was on the frontier of the last call
+     */
+    public boolean isFrontier(int index) {
+        return Arrays.binarySearch(frontier, index) >= 0;
+    }
+
+    public int getInteriorCount() {
+        return interiorCount;
+    }
+
+    /**
+     * @return the chance of any one cell away from the frontier being a bomb
+     */
+    public double getInteriorProbability() {
+        return interiorProbability;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * groups the constraints into independent components and counts the arrangements of each
+     *
+     * @param constraintCells the positions in the frontier of each constraint's cells
+     * @param constraintNeeds how many bombs each constraint still needs
+     * @return the counted components
+     */
+    private List<Component> splitComponents(int[][] constraintCells, int[] constraintNeeds) {
+
+        int[] parent = new int[frontier.length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+
+        for (int[] cells : constraintCells) {
+            for (int i = 1; i < cells.length; i++) {
+                parent[find(parent, cells[i])] = find(parent, cells[0]);
+            }
+        }
+
+        Map<Integer, List<Integer>> constraintsByRoot = new HashMap<>();
+        for (int k = 0; k < constraintCells.length; k++) {
+            constraintsByRoot.computeIfAbsent(find(parent, constraintCells[k][0]), root -> new ArrayList<>()).add(k);
+        }
+
+        Map<ComponentKey, Component> counted = new HashMap<>();
+        List<Component> components = new ArrayList<>();
+
+        List<List<Integer>> groups = new ArrayList<>(constraintsByRoot.values());
+        List<ComponentKey> keys = new ArrayList<>();
+        int uncounted = 0;
+
+        for (List<Integer> constraints : groups) {
+            keys.add(keyOf(constraints, constraintCells, constraintNeeds));
+            uncounted += memo.containsKey(keys.get(keys.size() - 1)) ? 0 : 1;
+        }
+
+        long budget = stepBudget > 0 ? stepBudget : timeBudget;
+        int left = uncounted;
+
+        for (int j = 0; j < groups.size(); j++) {
+
+            ComponentKey key = keys.get(j);
+            Component component = memo.get(key);
+
+            if (component == null) {
+
+                /**
+                 * a component which uses up its share doesn't leave those after it with nothing
+                 */
+                slice = Math.max(budget / uncounted, (budget - used()) / left--);
+                sliceStart = used();
+
+                component = count(groups.get(j), constraintCells, constraintNeeds);
+            }
+
+            if (component.approximate) {
+                approximate = true;
+            } else {
+                counted.put(key, component);
+            }
+            components.add(component);
+        }
+
+        memo = counted;
+
+        return components;
+    }
+
+    private int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private ComponentKey keyOf(List<Integer> constraints, int[][] constraintCells, int[] constraintNeeds) {
+
+        int length = 0;
+        for (int k : constraints) {
+            length += constraintCells[k].length + 2;
+        }
+
+        int[] key = new int[length];
+        int at = 0;
+
+        for (int k : constraints) {
+            key[at++] = constraintNeeds[k];
+            key[at++] = constraintCells[k].length;
+            for (int cell : constraintCells[k]) {
+                key[at++] = frontier[cell];
+            }
+        }
+
+        return new ComponentKey(key);
+    }
+
+    /**
+     * counts the arrangements of bombs in one component a cell at a time,
+     * falling back to sampling arrangements if its share of the budget runs out
+     */
+    private Component count(List<Integer> constraints, int[][] constraintCells, int[] constraintNeeds) {
+
+        /**
+         * going through the constraints breadth first from the first, and numbering the component's cells in the order
+         * they are reached, so that each constraint is started and finished within a short run of cells - which keeps
+         * down the constraints open at any one cell, and so the ways of leaving them open which are counted
+         */
+        Map<Integer, List<Integer>> constraintsOf = new HashMap<>();
+        for (int k : constraints) {
+            for (int cell : constraintCells[k]) {
+                constraintsOf.computeIfAbsent(cell, key -> new ArrayList<>()).add(k);
+            }
+        }
+
+        List<Integer> order = new ArrayList<>();
+        Set<Integer> reached = new HashSet<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        queue.add(constraints.get(0));
+        reached.add(constraints.get(0));
+
+        while (!queue.isEmpty()) {
+
+            int k = queue.poll();
+            order.add(k);
+
+            for (int cell : constraintCells[k]) {
+                for (int other : constraintsOf.get(cell)) {
+                    if (reached.add(other)) {
+                        queue.add(other);
+                    }
+                }
+            }
+        }
+
+        Map<Integer, Integer> localOf = new HashMap<>();
+        List<Integer> cellOrder = new ArrayList<>();
+
+        for (int k : order) {
+            for (int cell : constraintCells[k]) {
+                if (!localOf.containsKey(cell)) {
+                    localOf.put(cell, cellOrder.size());
+                    cellOrder.add(cell);
+                }
+            }
+        }
+
+        int n = cellOrder.size();
+        Search search = new Search(n, order.size());
+
+        for (int i = 0; i < n; i++) {
+            search.cells[i] = frontier[cellOrder.get(i)];
+        }
+
+        int[] constraintCount = new int[n];
+        for (int k : order) {
+            for (int cell : constraintCells[k]) {
+                constraintCount[localOf.get(cell)]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            search.cellConstraints[i] = new int[constraintCount[i]];
+            constraintCount[i] = 0;
+        }
+
+        for (int local = 0; local < order.size(); local++) {
+
+            int k = order.get(local);
+
+            search.need[local] = constraintNeeds[k];
+            search.unassigned[local] = constraintCells[k].length;
+
+            for (int cell : constraintCells[k]) {
+                int i = localOf.get(cell);
+                search.cellConstraints[i][constraintCount[i]++] = local;
+            }
+        }
+
+        search.countLayers();
+
+        if (search.aborted) {
+            search.sample();
+        }
+
+        return search.toComponent();
+    }
+
+    /**
+     * combines the components with each other and with the interior, weighting every total number of bombs on the
+     * frontier by the number of ways the bombs left over can be placed in the interior
+     *
+     * @param components the counted components
+     * @param bombsLeft  the bombs which are not known to the solver
+     */
+    private void combine(List<Component> components, int bombsLeft) {
+
+        int k = components.size();
+
+        double[][] prefix = new double[k + 1][];
+        double[][] suffix = new double[k + 1][];
+
+        prefix[0] = new double[]{1};
+        for (int j = 0; j < k; j++) {
+            prefix[j + 1] = convolve(prefix[j], components.get(j).weights);
+        }
+        suffix[k] = new double[]{1};
+        for (int j = k - 1; j >= 0; j--) {
+            suffix[j] = convolve(components.get(j).weights, suffix[j + 1]);
+        }
+
+        double[] total = prefix[k];
+        double[] interiorWeights = interiorWeights(total.length, bombsLeft);
+
+        double z = 0, expectedInteriorBombs = 0;
+
+        for (int t = 0; t < total.length; t++) {
+            z += total[t] * interiorWeights[t];
+        }
+
+        /**
+         * the clues can't be satisfied with the bombs left (which sampling can cause), so the count is ignored
+         */
+        if (z <= 0) {
+            Arrays.fill(interiorWeights, 1);
+            z = 0;
+            for (int t = 0; t < total.length; t++) {
+                z += total[t];
+            }
+        }
+
+        for (int t = 0; t < total.length; t++) {
+            expectedInteriorBombs += total[t] * interiorWeights[t] * (bombsLeft - t);
+        }
+
+        interiorProbability = interiorCount > 0 ? Math.min(1, Math.max(0, expectedInteriorBombs / z / interiorCount)) : 1;
+
+        for (int j = 0; j < k; j++) {
+
+            Component component = components.get(j);
+            double[] others = convolve(prefix[j], suffix[j + 1]);
+
+            for (int m = 0; m < component.weights.length; m++) {
+
+                if (component.weights[m] == 0) {
+                    continue;
+                }
+
+                double g = 0;
+                for (int t = 0; t < others.length && m + t < interiorWeights.length; t++) {
+                    g += others[t] * interiorWeights[m + t];
+                }
+
+                double weight = component.weights[m] * g / z;
+
+                for (int i = 0; i < component.cells.length; i++) {
+                    probabilities[Arrays.binarySearch(frontier, component.cells[i])] += weight * component.probabilities[m][i];
+                }
+            }
+        }
+    }
+
+    /**
+     * the number of ways to put the bombs left over from the frontier in the interior, C(interior, bombsLeft - t)
+     * for each total t of bombs on the frontier, scaled so the largest is 1 to stay within a double
+     */
+    private double[] interiorWeights(int totals, int bombsLeft) {
+
+        double[] logWeights = new double[totals];
+        double[] weights = new double[totals];
+        boolean any = false;
+        double max = Double.NEGATIVE_INFINITY;
+
+        for (int t = 0; t < totals; t++) {
+
+            int inInterior = bombsLeft - t;
+
+            if (inInterior < 0 || inInterior > interiorCount) {
+                logWeights[t] = Double.NEGATIVE_INFINITY;
+            } else if (!any || logWeights[t - 1] == Double.NEGATIVE_INFINITY) {
+                logWeights[t] = 0;
+                any = true;
+            } else {
+                /**
+                 * C(n, b - 1) / C(n, b) = b / (n - b + 1)
+                 */
+                logWeights[t] = logWeights[t - 1] + Math.log(inInterior + 1) - Math.log(interiorCount - inInterior);
+            }
+
+            max = Math.max(max, logWeights[t]);
+        }
+
+        for (int t = 0; t < totals; t++) {
+            weights[t] = any ? Math.exp(logWeights[t] - max) : 0;
+        }
+
+        return weights;
+    }
+
+    /**
+     * @param slices how many of its shares of the budget the component being counted may use
+     * @return if it has used more than that
+     */
+    private boolean pastBudget(int slices) {
+        return used() - sliceStart > slice * slices;
+    }
+
+    /**
+     * @return the budget the call has used, in steps or in nanoseconds
+     */
+    private long used() {
+        return stepBudget > 0 ? steps : System.nanoTime() - start;
+    }
+
+    private double[] convolve(double[] a, double[] b) {
+
+        double[] result = new double[a.length + b.length - 1];
+
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == 0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the positions in the frontier of the unknown cells around a clue
+     */
+    private int[] frontierAround(BoardState state, Solver solver, int clue) {
+
+        int[] cells = new int[8];
+        int[] count = {0};
+
+        forEachNeighbour(state, clue, neighbour -> {
+            if (solver.isUnknown(neighbour)) {
+                cells[count[0]++] = Arrays.binarySearch(frontier, neighbour);
+            }
+        });
+
+        return Arrays.copyOf(cells, count[0]);
+    }
+
+    private int countKnownBombsAround(BoardState state, Solver solver, int index) {
+        int[] count = {0};
+        forEachNeighbour(state, index, neighbour -> {
+            if (!state.isOpened(neighbour) && solver.getKnowledge(neighbour) == Solver.BOMB) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    private void forEachNeighbour(BoardState state, int index, IntConsumer action) {
+
+        int columns = state.getColumns();
+        int r = index / columns;
+        int c = index % columns;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int newI = state.index(newR, newC);
+
+                if (newI != index) {
+                    action.accept(newI);
+                }
+            }
+        }
+    }
+
+    /**
+     * the counted arrangements of one component -
+     * the relative weight of each number of bombs in it, and the chance of each of its cells being a bomb
+     * given that number of bombs
+     */
+    private static class Component {
+
+        private int[] cells;
+        private double[] weights;
+        private double[][] probabilities;
+        private boolean approximate;
+    }
+
+    /**
+     * the cells and clues of a component, used to recognise a component which hasn't changed since the last call
+     */
+    private static class ComponentKey {
+
+        private int[] key;
+        private int hash;
+
+        private ComponentKey(int[] key) {
+            this.key = key;
+            this.hash = Arrays.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ComponentKey && Arrays.equals(key, ((ComponentKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * how many bombs each of the constraints open at a position still needs, with the ways of reaching that
+     * from the first cell and the ways of finishing from it, and what it leads to with the next cell safe or a bomb
+     */
+    private static class State {
+
+        private final int[] needs;
+        private final int hash;
+
+        private final Ways forward = new Ways();
+        private final Ways backward = new Ways();
+        private final State[] next = new State[2];
+
+        private State(int[] needs) {
+            this.needs = needs;
+            this.hash = Arrays.hashCode(needs);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof State && Arrays.equals(needs, ((State) o).needs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * a number of ways for each number of bombs, kept only from the fewest bombs to the most which have any
+     */
+    private static class Ways {
+
+        private int low;
+        private double[] ways = new double[0];
+
+        /**
+         * adds in the ways of another, each taking shift more bombs
+         */
+        private void add(Ways other, int shift) {
+
+            if (other.ways.length == 0) {
+                return;
+            }
+
+            int otherLow = other.low + shift;
+
+            if (ways.length == 0) {
+                low = otherLow;
+                ways = other.ways.clone();
+                return;
+            }
+
+            int newLow = Math.min(low, otherLow);
+            int newHigh = Math.max(low + ways.length, otherLow + other.ways.length);
+
+            if (newLow != low || newHigh != low + ways.length) {
+                double[] grown = new double[newHigh - newLow];
+                System.arraycopy(ways, 0, grown, low - newLow, ways.length);
+                ways = grown;
+                low = newLow;
+            }
+
+            for (int b = 0; b < other.ways.length; b++) {
+                ways[otherLow - low + b] += other.ways[b];
+            }
+        }
+    }
+
+    /**
+     * the counting of one component's arrangements, assigning each cell as safe or a bomb in turn,
+     * and the sampling of them when there are too many ways of leaving its constraints open to count
+     */
+    private class Search {
+
+        private int[] cells;
+        private int[][] cellConstraints;
+        private int[] need, unassigned;
+        private int[] values;
+
+        private double[] counts;
+        private double[][] cellCounts;
+
+        private boolean aborted;
+        private long sampleSteps;
+        private long nextCheck;
+
+        private Search(int n, int constraints) {
+
+            cells = new int[n];
+            cellConstraints = new int[n][];
+            need = new int[constraints];
+            unassigned = new int[constraints];
+            values = new int[n];
+
+            counts = new double[n + 1];
+            cellCounts = new double[n + 1][n];
+        }
+
+        /**
+         * counts the arrangements a cell at a time, through the ways the constraints can be left open after each cell -
+         * every arrangement of the cells so far which leaves each open constraint needing the same bombs can be
+         * finished in the same ways, so they are kept together, by how many bombs they took. The ways of finishing
+         * from each are then counted back from the last cell, and each cell's count as a bomb is the ways of reaching
+         * it times the ways of finishing after it
+         */
+        private void countLayers() {
+
+            aborted = false;
+            nextCheck = steps + CHECK_INTERVAL;
+
+            int n = cells.length;
+
+            /**
+             * the constraints open at each position - started by a cell before it and not finished by then -
+             * and how many of the cells of each of a cell's constraints come after it
+             */
+            int[][] open = new int[n + 1][];
+            int[][] remaining = new int[n][];
+
+            int[] last = new int[need.length];
+            for (int i = 0; i < n; i++) {
+                for (int k : cellConstraints[i]) {
+                    last[k] = i;
+                }
+            }
+
+            int[] left = unassigned.clone();
+            boolean[] started = new boolean[need.length];
+            int[] now = new int[need.length];
+            int size = 0;
+
+            for (int i = 0; i < n; i++) {
+
+                open[i] = Arrays.copyOf(now, size);
+                remaining[i] = new int[cellConstraints[i].length];
+
+                for (int j = 0; j < cellConstraints[i].length; j++) {
+
+                    int k = cellConstraints[i][j];
+                    remaining[i][j] = --left[k];
+
+                    if (!started[k]) {
+                        started[k] = true;
+                        now[size++] = k;
+                    }
+                }
+
+                int kept = 0;
+                for (int j = 0; j < size; j++) {
+                    if (last[now[j]] > i) {
+                        now[kept++] = now[j];
+                    }
+                }
+                size = kept;
+            }
+            open[n] = new int[0];
+
+            State[][] layers = new State[n + 1][];
+            int[] needAt = new int[need.length];
+            long kept = 0;
+
+            State first = new State(new int[0]);
+            first.forward.ways = new double[]{1};
+            layers[0] = new State[]{first};
+
+            for (int i = 0; i < n; i++) {
+
+                Map<State, State> next = new HashMap<>();
+
+                for (State state : layers[i]) {
+
+                    /**
+                     * a constraint which starts at this cell still needs all of its bombs
+                     */
+                    for (int k : cellConstraints[i]) {
+                        needAt[k] = need[k];
+                    }
+                    for (int j = 0; j < open[i].length; j++) {
+                        needAt[open[i][j]] = state.needs[j];
+                    }
+
+                    for (int value = 0; value <= 1; value++) {
+
+                        boolean possible = true;
+
+                        for (int j = 0; j < cellConstraints[i].length; j++) {
+                            int needs = needAt[cellConstraints[i][j]] - value;
+                            if (needs < 0 || needs > remaining[i][j]) {
+                                possible = false;
+                            }
+                        }
+
+                        if (!possible) {
+                            continue;
+                        }
+
+                        for (int k : cellConstraints[i]) {
+                            needAt[k] -= value;
+                        }
+
+                        int[] needs = new int[open[i + 1].length];
+                        for (int j = 0; j < needs.length; j++) {
+                            needs[j] = needAt[open[i + 1][j]];
+                        }
+
+                        for (int k : cellConstraints[i]) {
+                            needAt[k] += value;
+                        }
+
+                        State reached = new State(needs);
+                        State existing = next.putIfAbsent(reached, reached);
+
+                        if (existing != null) {
+                            reached = existing;
+                        }
+
+                        reached.forward.add(state.forward, value);
+                        state.next[value] = reached;
+
+                        if (spend(1)) {
+                            return;
+                        }
+                    }
+                }
+
+                layers[i + 1] = next.values().toArray(new State[0]);
+
+                for (State state : layers[i + 1]) {
+                    kept += state.forward.ways.length;
+                }
+
+                if (kept > MAX_WAYS) {
+                    aborted = true;
+                    return;
+                }
+            }
+
+            /**
+             * the last cell finishes every constraint, so only one state is left, unless there is no arrangement at all
+             */
+            if (layers[n].length == 0) {
+                return;
+            }
+
+            State end = layers[n][0];
+            end.backward.ways = new double[]{1};
+
+            for (int b = 0; b < end.forward.ways.length; b++) {
+                counts[end.forward.low + b] = end.forward.ways[b];
+            }
+
+            for (int i = n - 1; i >= 0; i--) {
+
+                for (State state : layers[i]) {
+
+                    for (int value = 0; value <= 1; value++) {
+                        if (state.next[value] != null) {
+                            state.backward.add(state.next[value].backward, value);
+                        }
+                    }
+
+                    if (state.next[1] == null) {
+                        continue;
+                    }
+
+                    Ways before = state.forward, after = state.next[1].backward;
+
+                    for (int a = 0; a < before.ways.length; a++) {
+                        for (int b = 0; b < after.ways.length; b++) {
+                            cellCounts[before.low + a + 1 + after.low + b][i] += before.ways[a] * after.ways[b];
+                        }
+                    }
+
+                    if (spend(1 + (long) before.ways.length * after.ways.length / 64)) {
+                        return;
+                    }
+                }
+
+                layers[i + 1] = null;
+            }
+
+            /**
+             * a component so large that its counts don't fit in a double is sampled instead
+             */
+            for (double count : counts) {
+                if (Double.isInfinite(count)) {
+                    aborted = true;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * counts some steps of work, checking the budget every so often
+         *
+         * @return if the component has used its share of the budget, which aborts the counting
+         */
+        private boolean spend(long work) {
+
+            steps += work;
+
+            if (steps >= nextCheck) {
+                nextCheck = steps + CHECK_INTERVAL;
+                aborted = pastBudget(1);
+            }
+
+            return aborted;
+        }
+
+        /**
+         * takes random arrangements, each found by backtracking with the values of each cell tried in a random order,
+         * until the component has used its share of the budget for a second time (always taking MIN_SAMPLES)
+         * <p>
+         * the samples are not uniform - each cell's value is picked with even odds, so an arrangement down a branch
+         * with few arrangements in it is found as often as a whole branch with many, and comes up more than its share.
+         * They are only an estimate, which is why the component is marked approximate
+         */
+        private void sample() {
+
+            approximate = true;
+
+            Arrays.fill(counts, 0);
+            for (double[] row : cellCounts) {
+                Arrays.fill(row, 0);
+            }
+
+            int samples = 0;
+
+            do {
+                sampleSteps = 0;
+                sampleOnce(0, 0);
+            } while (++samples < MIN_SAMPLES || !pastBudget(2));
+        }
+
+        private boolean sampleOnce(int position, int bombs) {
+
+            if (position == cells.length) {
+                record(bombs);
+                return true;
+            }
+            steps++;
+            if (++sampleSteps > (long) SAMPLE_STEPS_PER_CELL * cells.length) {
+                return true;
+            }
+
+            int first = random.nextInt(2);
+
+            for (int i = 0; i <= 1; i++) {
+
+                int value = first ^ i;
+
+                if (assign(position, value)) {
+
+                    boolean done = sampleOnce(position + 1, bombs + value);
+                    unassign(position, value);
+
+                    if (done) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private void record(int bombs) {
+
+            counts[bombs]++;
+
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == 1) {
+                    cellCounts[bombs][i]++;
+                }
+            }
+        }
+
+        private boolean assign(int position, int value) {
+
+            values[position] = value;
+            boolean possible = true;
+
+            for (int k : cellConstraints[position]) {
+                unassigned[k]--;
+                need[k] -= value;
+                if (need[k] < 0 || need[k] > unassigned[k]) {
+                    possible = false;
+                }
+            }
+
+            if (!possible) {
+                unassign(position, value);
+            }
+
+            return possible;
+        }
+
+        private void unassign(int position, int value) {
+
+            for (int k : cellConstraints[position]) {
+                unassigned[k]++;
+                need[k] += value;
+            }
+
+            values[position] = 0;
+        }
+
+        private Component toComponent() {
+
+            Component component = new Component();
+            component.cells = cells;
+            component.approximate = aborted;
+            component.weights = new double[counts.length];
+            component.probabilities = new double[counts.length][];
+
+            double total = 0;
+            for (double count : counts) {
+                total += count;
+            }
+
+            /**
+             * not a single arrangement was found in time, so every cell is given even odds
+             */
+            if (total == 0) {
+                int half = cells.length / 2;
+                counts[half] = 1;
+                Arrays.fill(cellCounts[half], 0.5);
+                total = 1;
+            }
+
+            for (int m = 0; m < counts.length; m++) {
+
+                component.weights[m] = total > 0 ? counts[m] / total : 0;
+                component.probabilities[m] = new double[cells.length];
+
+                /**
+                 * a sampled chance is never 0 or 1, as if one more sample had had each cell a bomb and one more
+                 * had had it safe - a cell which the samples happened to miss is not certain
+                 */
+                if (counts[m] > 0) {
+                    for (int i = 0; i < cells.length; i++) {
+                        component.probabilities[m][i] = aborted ? (cellCounts[m][i] + 1) / (counts[m] + 2)
+                                : cellCounts[m][i] / counts[m];
+                    }
+                }
+            }
+
+            return component;
+        }
+    }
+
+}
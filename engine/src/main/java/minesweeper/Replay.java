@@ -0,0 +1,184 @@
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * plays back a game from its journal, one turn at a time in either direction, or straight to any turn
+ * <p>
+ * every so many turns the board is snapshotted as it is played forward, so seeking to a turn only plays forward from
+ * the nearest snapshot before it, rather than from the start of the game.
+ * Seeking backwards makes a new game, so getGame should be asked for again after moving
+ */
+public class Replay {
+
+    static final int DEFAULT_SNAPSHOT_INTERVAL = 64;
+
+    private final MoveJournal journal;
+    private final int snapshotInterval;
+
+    /**
+     * the snapshot taken at every multiple of snapshotInterval turns which has been reached so far
+     */
+    private Snapshot[] snapshots;
+
+    private Game game;
+
+    public Replay(MoveJournal journal) {
+        this(journal, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * @param journal          the journal of the game to play back
+     * @param snapshotInterval how many turns apart the snapshots are, trading memory for how far any seek plays
+     */
+    public Replay(MoveJournal journal, int snapshotInterval) {
+
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("snapshot interval must be positive: " + snapshotInterval);
+        }
+
+        this.journal = journal;
+        this.snapshotInterval = snapshotInterval;
+        this.snapshots = new Snapshot[1];
+        this.game = journal.newGame();
+
+        snapshots[0] = new Snapshot(game);
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return how many turns of the journal have been played
+     */
+    public int getPosition() {
+        return game.getTurnsPlayed();
+    }
+
+    public MoveJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * plays the next turn of the journal
+     *
+     * @return whether there was a turn to play
+     */
+    public boolean stepForward() {
+
+        int position = getPosition();
+
+        if (position >= journal.size()) {
+            return false;
+        }
+
+        game.applyTurn(journal.getTurn(position));
+
+        if (game.getTurnsPlayed() != position + 1) {
+            throw new IllegalStateException("turn " + position + " of the journal could not be played");
+        }
+
+        if ((position + 1) % snapshotInterval == 0) {
+            takeSnapshot((position + 1) / snapshotInterval);
+        }
+
+        return true;
+    }
+
+    /**
+     * takes back the last turn played
+     *
+     * @return whether there was a turn to take back
+     */
+    public boolean stepBack() {
+
+        if (getPosition() == 0) {
+            return false;
+        }
+
+        seek(getPosition() - 1);
+
+        return true;
+    }
+
+    /**
+     * moves to just after the given turn has been played, playing forward from wherever is closest -
+     * the current turn or the latest snapshot before the given turn
+     *
+     * @param turn the amount of turns to have played, clamped to the length of the journal
+     */
+    public void seek(int turn) {
+
+        turn = Math.max(0, Math.min(turn, journal.size()));
+
+        int slot = Math.min(turn / snapshotInterval, snapshots.length - 1);
+        while (snapshots[slot] == null) {
+            slot--;
+        }
+
+        int fromSnapshot = slot * snapshotInterval;
+
+        /**
+         * the start of the game is made again from the journal, as its bombs may come from a layout not yet placed
+         */
+        if (turn < getPosition() || fromSnapshot > getPosition()) {
+            game = slot == 0 ? journal.newGame() : snapshots[slot].restore(fromSnapshot);
+        }
+
+        while (getPosition() < turn) {
+            stepForward();
+        }
+    }
+
+    private void takeSnapshot(int slot) {
+
+        if (slot >= snapshots.length) {
+            snapshots = Arrays.copyOf(snapshots, Math.max(slot + 1, snapshots.length * 2));
+        }
+
+        if (snapshots[slot] == null) {
+            snapshots[slot] = new Snapshot(game);
+        }
+    }
+
+    /**
+     * a game as it was after some turn, with its cells packed into bitmaps
+     */
+    private static class Snapshot {
+
+        private final long[] bombs, opened, flagged;
+        private final boolean bombsSet, noGuess, won, lost;
+        private final int rows, columns, numBombs;
+        private final long seed;
+
+        Snapshot(Game game) {
+
+            Board board = game.getBoard();
+            BoardState state = board.getState();
+
+            this.bombs = state.toBitmap(BoardState.BOMB);
+            this.opened = state.toBitmap(BoardState.OPENED);
+            this.flagged = state.toBitmap(BoardState.FLAGGED);
+
+            this.bombsSet = board.bombsSet();
+            this.noGuess = board.isNoGuess();
+            this.won = game.isWon();
+            this.lost = game.isLost();
+            this.rows = board.getRows();
+            this.columns = board.getColumns();
+            this.numBombs = board.getNumBombs();
+            this.seed = board.getSeed();
+        }
+
+        Game restore(int turnsPlayed) {
+
+            BoardState state = new BoardState(rows, columns);
+            state.restore(bombs, opened, flagged);
+
+            return new Game(new Board(state, numBombs, seed, bombsSet, noGuess), turnsPlayed, won, lost);
+        }
+
+    }
+
+}
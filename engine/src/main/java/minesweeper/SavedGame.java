@@ -0,0 +1,198 @@
+package minesweeper;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * a board and how long it has been played for, which can be written to a file and read back
+ * <p>
+ * the file is a fixed header followed by three bitmaps of one bit per cell - bombs, opened cells and flagged cells -
+ * all little-endian. Clues are not stored, they are rebuilt from the bombs.
+ * Files are read and written through a memory-mapped buffer, with each bitmap copied in bulk,
+ * so that even boards of a billion cells are saved and loaded without a read or write per cell
+ * <pre>
+ *  0  int   MAGIC
+ *  4  int   VERSION
+ *  8  int   rows
+ * 12  int   columns
+ * 16  int   number of bombs
+ * 20  int   flags - 1 if the bombs have been placed, 2 if they are placed without guesses
+ * 24  long  seed
+ * 32  long  elapsed milliseconds
+ * 40  long[] bombs, opened, flagged - (rows * columns + 63) / 64 words each
+ * </pre>
+ */
+public class SavedGame {
+
+    static final int MAGIC = 0x4D535750;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+
+    static final int BOMBS_SET = 1;
+    static final int NO_GUESS = 2;
+
+    private final Board board;
+    private final long elapsedMillis;
+
+    public SavedGame(Board board, long elapsedMillis) {
+        this.board = board;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * writes the game to a file, replacing anything already there
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+
+        BoardState state = board.getState();
+        int words = words(state.size());
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + 3L * words * 8);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(state.getRows());
+            buffer.putInt(state.getColumns());
+            buffer.putInt(board.getNumBombs());
+            buffer.putInt((board.bombsSet() ? BOMBS_SET : 0) | (board.isNoGuess() ? NO_GUESS : 0));
+            buffer.putLong(board.getSeed());
+            buffer.putLong(elapsedMillis);
+
+            LongBuffer bitmaps = buffer.asLongBuffer();
+            bitmaps.put(state.toBitmap(BoardState.BOMB));
+            bitmaps.put(state.toBitmap(BoardState.OPENED));
+            bitmaps.put(state.toBitmap(BoardState.FLAGGED));
+
+            buffer.force();
+        }
+    }
+
+    /**
+     * reads a game written by write
+     *
+     * @param path the file to read
+     * @return the game
+     * @throws IOException if the file cannot be read, or is not a saved game of a version which can be read,
+     *                     or is corrupt - its bitmaps have bits past the last cell, or hold a different number of bombs
+     *                     than its header says
+     */
+    public static SavedGame read(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("not a saved game: " + path);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a saved game: " + path);
+            }
+
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported save version " + version + ": " + path);
+            }
+
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            int numBombs = buffer.getInt();
+            int flags = buffer.getInt();
+            long seed = buffer.getLong();
+            long elapsedMillis = buffer.getLong();
+
+            if (rows < 1 || columns < 1 || (long) rows * columns > Integer.MAX_VALUE || numBombs < 0
+                    || channel.size() != HEADER_BYTES + 3L * words(rows * columns) * 8) {
+                throw new IOException("corrupt saved game: " + path);
+            }
+
+            int words = words(rows * columns);
+            long[] bombs = new long[words];
+            long[] opened = new long[words];
+            long[] flagged = new long[words];
+
+            LongBuffer bitmaps = buffer.asLongBuffer();
+            bitmaps.get(bombs);
+            bitmaps.get(opened);
+            bitmaps.get(flagged);
+
+            /**
+             * a bit past the last cell would be restored into a cell which does not exist, a board whose bombs
+             * do not add up to its count could never be won, and a flagged cell is never opened
+             */
+            int cells = rows * columns;
+            int bombsPlaced = (flags & BOMBS_SET) != 0 ? numBombs : 0;
+
+            if (pastLastCell(bombs, cells) || pastLastCell(opened, cells) || pastLastCell(flagged, cells)
+                    || bitCount(bombs) != bombsPlaced || overlap(opened, flagged)) {
+                throw new IOException("corrupt saved game: " + path);
+            }
+
+            BoardState state = new BoardState(rows, columns);
+            state.restore(bombs, opened, flagged);
+
+            Board board = new Board(state, numBombs, seed, (flags & BOMBS_SET) != 0, (flags & NO_GUESS) != 0);
+
+            return new SavedGame(board, elapsedMillis);
+        }
+    }
+
+    private static int words(int cells) {
+        return (int) (((long) cells + 63) >>> 6);
+    }
+
+    /**
+     * @return whether any bit is set past the last cell, in the last word of a bitmap
+     */
+    private static boolean pastLastCell(long[] bitmap, int cells) {
+        return (cells & 63) != 0 && (bitmap[bitmap.length - 1] & -(1L << cells)) != 0;
+    }
+
+    /**
+     * @return whether any cell is set in both bitmaps
+     */
+    private static boolean overlap(long[] a, long[] b) {
+
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static long bitCount(long[] bitmap) {
+
+        long count = 0;
+
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+}
@@ -0,0 +1,213 @@
+package minesweeper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * runs many independent games at once, one per session, each found by its id
+ * <p>
+ * every session has its own lock, so the turns of one session are applied one at a time, in the order they arrive,
+ * while turns on different sessions never wait for each other - there is no lock over all of the sessions.
+ * The locks are ReentrantLocks rather than synchronized blocks, so that a virtual thread waiting on one
+ * does not hold on to its carrier thread.
+ * <p>
+ * each session is only its Game, whose board keeps a byte per cell, so an expert board takes up
+ * well under a kilobyte and ten thousand sessions take up a few megabytes. A session's board is limited to
+ * maxCells cells, so that no one session can take up more than its share of the memory, and the boards of all of
+ * the sessions open to maxTotalCells, so that many sessions of large boards cannot take up all of it between them
+ */
+public class SessionManager {
+
+    /**
+     * the most cells a session's board may have unless told otherwise, a 256x256 board
+     */
+    public static final int DEFAULT_MAX_CELLS = 1 << 16;
+    /**
+     * the most cells the boards of all of the sessions may have between them unless told otherwise,
+     * about 64 megabytes of cells
+     */
+    public static final long DEFAULT_MAX_TOTAL_CELLS = 1L << 26;
+
+    private final int maxSessions;
+    private final int maxCells;
+    private final long maxTotalCells;
+
+    private final ConcurrentHashMap<Long, Session> sessions;
+    private final AtomicInteger numSessions;
+    private final AtomicLong numCells;
+    private final AtomicLong nextId;
+
+    /**
+     * @param maxSessions how many sessions may be open at once
+     */
+    public SessionManager(int maxSessions) {
+        this(maxSessions, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * @param maxSessions how many sessions may be open at once
+     * @param maxCells    the most cells a session's board may have
+     */
+    public SessionManager(int maxSessions, int maxCells) {
+        this(maxSessions, maxCells, DEFAULT_MAX_TOTAL_CELLS);
+    }
+
+    /**
+     * @param maxSessions   how many sessions may be open at once
+     * @param maxCells      the most cells a session's board may have
+     * @param maxTotalCells the most cells the boards of all of the sessions open may have between them
+     */
+    public SessionManager(int maxSessions, int maxCells, long maxTotalCells) {
+
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("at least one session must be allowed: " + maxSessions);
+        }
+        if (maxCells < 1) {
+            throw new IllegalArgumentException("at least one cell must be allowed: " + maxCells);
+        }
+        if (maxTotalCells < maxCells) {
+            throw new IllegalArgumentException("fewer cells allowed in total than in one session: " + maxTotalCells);
+        }
+
+        this.maxSessions = maxSessions;
+        this.maxCells = maxCells;
+        this.maxTotalCells = maxTotalCells;
+
+        this.sessions = new ConcurrentHashMap<>();
+        this.numSessions = new AtomicInteger();
+        this.numCells = new AtomicLong();
+        this.nextId = new AtomicLong(1);
+    }
+
+    /**
+     * opens a session with a new game
+     *
+     * @param config the board of the game
+     * @param seed   the seed the board's bombs are placed with
+     * @return the id of the session
+     * @throws IllegalArgumentException if the board has more cells than a session may have
+     * @throws IllegalStateException    if as many sessions as are allowed are already open, or their boards
+     *                                  already have too many cells between them for this one to fit
+     */
+    public long create(GameConfig config, long seed) {
+
+        /**
+         * checked before the board is made, as making it is what takes up the memory
+         */
+        if ((long) config.getRows() * config.getColumns() > maxCells) {
+            throw new IllegalArgumentException("too many cells: " + config.getRows() + "x" + config.getColumns()
+                    + " is more than " + maxCells);
+        }
+
+        int cells = config.getRows() * config.getColumns();
+
+        if (numSessions.incrementAndGet() > maxSessions) {
+            numSessions.decrementAndGet();
+            throw new IllegalStateException("too many sessions: " + maxSessions);
+        }
+
+        if (numCells.addAndGet(cells) > maxTotalCells) {
+            numCells.addAndGet(-cells);
+            numSessions.decrementAndGet();
+            throw new IllegalStateException("too many cells in all sessions: " + maxTotalCells);
+        }
+
+        long id = nextId.getAndIncrement();
+        sessions.put(id, new Session(new Game(config.newBoard(seed)), cells));
+
+        return id;
+    }
+
+    /**
+     * does something with a session's game, while holding that session's lock
+     *
+     * @param id     the id of the session
+     * @param action what to do with the game
+     * @return what the action returned
+     * @throws IllegalArgumentException if there is no such session
+     */
+    public <T> T withGame(long id, Function<Game, T> action) {
+
+        Session session = sessions.get(id);
+
+        if (session == null) {
+            throw new IllegalArgumentException("no such session: " + id);
+        }
+
+        session.lock.lock();
+        try {
+            /**
+             * the session may have been closed while this thread waited for its lock
+             */
+            if (session.closed) {
+                throw new IllegalArgumentException("no such session: " + id);
+            }
+
+            return action.apply(session.game);
+
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * closes a session, waiting for any turn being applied to it to finish
+     *
+     * @return whether there was such a session
+     */
+    public boolean close(long id) {
+
+        Session session = sessions.remove(id);
+
+        if (session == null) {
+            return false;
+        }
+
+        session.lock.lock();
+        try {
+            session.closed = true;
+        } finally {
+            session.lock.unlock();
+        }
+
+        numSessions.decrementAndGet();
+        numCells.addAndGet(-session.cells);
+
+        return true;
+    }
+
+    /**
+     * @return how many sessions are open
+     */
+    public int size() {
+        return numSessions.get();
+    }
+
+    /**
+     * @return how many cells the boards of the sessions open have between them
+     */
+    public long cells() {
+        return numCells.get();
+    }
+
+    /**
+     * a game and the lock its turns are applied under
+     */
+    private static class Session {
+
+        private final Game game;
+        private final int cells;
+        private final ReentrantLock lock;
+        private boolean closed;
+
+        Session(Game game, int cells) {
+            this.game = game;
+            this.cells = cells;
+            this.lock = new ReentrantLock();
+        }
+    }
+
+}
@@ -0,0 +1,354 @@
+package minesweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * a board which many players, or solver threads, can act on at once, without any lock
+ * <p>
+ * cells are packed the same way as in BoardState, a byte each, four to an int, and every change to a cell is a
+ * compare-and-set of the int holding it, retried if another thread changed any of its four cells first.
+ * Once the bombs are placed, only the opened and flagged bits ever change, and every change is one way:
+ * <ul>
+ * <li>open turns a closed, un-flagged cell opened, exactly once - whichever thread's compare-and-set lands first
+ * opens it, and every other thread sees that it already was</li>
+ * <li>setFlag and clearFlag set or clear a closed cell's flag, rather than toggling it, so two players flagging
+ * the same cell leave it flagged instead of cancelling each other out</li>
+ * </ul>
+ * so a cell is never both opened and flagged, and the counts, kept by whichever thread made each change,
+ * are exact once the threads are done.
+ * <p>
+ * a flood fill only carries on from the cells it opened itself, so fills from different threads which run into
+ * each other share out the region between them, each cell being opened and spread from exactly once,
+ * and the region opened is the same as if the fills had run one after the other
+ */
+public class SharedBoard {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int rows, columns, size;
+    private final int numBombs;
+
+    /**
+     * the cells, four to a word, the cell at index i being byte i & 3 of word i >> 2
+     */
+    private final int[] words;
+
+    /**
+     * adders rather than atomic counters, so threads opening cells all over the board do not all contend on one value
+     */
+    private final LongAdder numOpenedSafe, numOpenedBombs, numFlagged;
+
+    /**
+     * @param board the board to share, which must have its bombs placed - any cells already opened or flagged stay so
+     * @throws IllegalArgumentException if the board's bombs are not placed yet
+     */
+    public SharedBoard(Board board) {
+
+        if (!board.bombsSet()) {
+            throw new IllegalArgumentException("the bombs must be placed before a board is shared");
+        }
+
+        BoardState state = board.getState();
+
+        this.rows = state.getRows();
+        this.columns = state.getColumns();
+        this.size = state.size();
+        this.numBombs = state.getNumBombs();
+
+        this.words = new int[(int) (((long) size + 3) >>> 2)];
+
+        for (int i = 0; i < size; i++) {
+            words[i >>> 2] |= (state.get(i) & 0xFF) << ((i & 3) << 3);
+        }
+
+        this.numOpenedSafe = new LongAdder();
+        this.numOpenedBombs = new LongAdder();
+        this.numFlagged = new LongAdder();
+
+        numOpenedSafe.add(state.getNumOpenedSafe());
+        numOpenedBombs.add(state.getNumOpenedBombs());
+        numFlagged.add(state.getNumFlagged());
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int index(int r, int c) {
+        return r * columns + c;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < columns;
+    }
+
+    /**
+     * the packed state of a cell, as BoardState packs it, read with volatile semantics
+     *
+     * @param index the index of the cell
+     * @return the packed state
+     */
+    public int get(int index) {
+        return (int) WORDS.getVolatile(words, index >>> 2) >>> ((index & 3) << 3) & 0xFF;
+    }
+
+    public boolean isBomb(int index) {
+        return (get(index) & BoardState.BOMB) != 0;
+    }
+
+    public boolean isOpened(int index) {
+        return (get(index) & BoardState.OPENED) != 0;
+    }
+
+    public boolean isFlagged(int index) {
+        return (get(index) & BoardState.FLAGGED) != 0;
+    }
+
+    public int getClue(int index) {
+        return get(index) & BoardState.CLUE;
+    }
+
+    public int getNumBombs() {
+        return numBombs;
+    }
+
+    public int getNumOpenedSafe() {
+        return numOpenedSafe.intValue();
+    }
+
+    public int getNumOpenedBombs() {
+        return numOpenedBombs.intValue();
+    }
+
+    public int getNumFlagged() {
+        return numFlagged.intValue();
+    }
+
+    public boolean anyBombOpened() {
+        return numOpenedBombs.sum() > 0;
+    }
+
+    public boolean allButBombsOpened() {
+        return numOpenedSafe.sum() == size - numBombs && numOpenedBombs.sum() == 0;
+    }
+
+    /**
+     * opens a closed cell which is not flagged
+     *
+     * @param index the index of the cell
+     * @return whether this call opened it, rather than it already being opened or flagged
+     */
+    public boolean open(int index) {
+
+        int before = setBits(index, BoardState.OPENED, BoardState.FLAGGED);
+
+        if ((before & (BoardState.OPENED | BoardState.FLAGGED)) != 0) {
+            return false;
+        }
+
+        if ((before & BoardState.BOMB) != 0) {
+            numOpenedBombs.increment();
+        } else {
+            numOpenedSafe.increment();
+        }
+
+        return true;
+    }
+
+    /**
+     * flags a closed cell, leaving an already flagged cell flagged
+     *
+     * @param index the index of the cell
+     * @return whether this call flagged it, rather than it already being flagged or opened
+     */
+    public boolean setFlag(int index) {
+
+        int before = setBits(index, BoardState.FLAGGED, BoardState.OPENED);
+
+        if ((before & (BoardState.FLAGGED | BoardState.OPENED)) != 0) {
+            return false;
+        }
+
+        numFlagged.increment();
+
+        return true;
+    }
+
+    /**
+     * takes the flag off of a cell, leaving a cell without one as it is
+     *
+     * @param index the index of the cell
+     * @return whether this call took the flag off
+     */
+    public boolean clearFlag(int index) {
+
+        int word = index >>> 2;
+        int shift = (index & 3) << 3;
+
+        while (true) {
+
+            int old = (int) WORDS.getVolatile(words, word);
+
+            if ((old >>> shift & BoardState.FLAGGED) == 0) {
+                return false;
+            }
+
+            if (WORDS.weakCompareAndSet(words, word, old, old & ~(BoardState.FLAGGED << shift))) {
+                numFlagged.decrement();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * sets bits of a cell, unless the cell already has any of them or any of the bits it must not have
+     *
+     * @param index  the index of the cell
+     * @param bits   the bits to set
+     * @param unless the bits which stop the change if the cell has them
+     * @return the cell as it was just before, which has none of bits or unless if and only if this call set them
+     */
+    private int setBits(int index, int bits, int unless) {
+
+        int word = index >>> 2;
+        int shift = (index & 3) << 3;
+
+        while (true) {
+
+            int old = (int) WORDS.getVolatile(words, word);
+            int cell = old >>> shift & 0xFF;
+
+            if ((cell & (bits | unless)) != 0) {
+                return cell;
+            }
+
+            /**
+             * a weak compare-and-set may fail spuriously, which is only another time around this loop
+             */
+            if (WORDS.weakCompareAndSet(words, word, old, old | bits << shift)) {
+                return cell;
+            }
+        }
+    }
+
+    /**
+     * opens a safe cell and, if it has no bombs around it, every cell reachable through cells without bombs around
+     * them - as Board.openSafeCell, but safe to run from many threads at once on the same board
+     *
+     * @param r the row of the cell
+     * @param c the column of the cell
+     * @return how many cells this call opened
+     */
+    public int openSafeCell(int r, int c) {
+
+        int i = index(r, c);
+
+        if (isBomb(i) || !open(i)) {
+            return 0;
+        }
+
+        int opened = 1;
+
+        /**
+         * each call keeps its own stack, as other threads may be filling at the same time
+         */
+        int[] stack = new int[64];
+        int size = 0;
+        stack[size++] = i;
+
+        while (size > 0) {
+
+            int cell = stack[--size];
+
+            if (getClue(cell) != 0) {
+                continue;
+            }
+
+            int cellR = cell / columns;
+            int cellC = cell % columns;
+
+            for (int newR = Math.max(cellR - 1, 0); newR <= Math.min(cellR + 1, rows - 1); newR++) {
+                for (int newC = Math.max(cellC - 1, 0); newC <= Math.min(cellC + 1, columns - 1); newC++) {
+
+                    int newI = index(newR, newC);
+
+                    /**
+                     * a cell opened by another thread is that thread's to spread from
+                     */
+                    if (!isBomb(newI) && open(newI)) {
+
+                        opened++;
+
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, size * 2);
+                        }
+                        stack[size++] = newI;
+                    }
+                }
+            }
+        }
+
+        return opened;
+    }
+
+    /**
+     * opens every cell around an opened cell which is not flagged, if as many of them are flagged as its clue says -
+     * as Board.sweep, opening any bomb which was not flagged
+     *
+     * @param r the row of the cell
+     * @param c the column of the cell
+     * @return how many cells this call opened
+     */
+    public int sweep(int r, int c) {
+
+        int i = index(r, c);
+
+        if (!isOpened(i) || isBomb(i) || getClue(i) != getNumFlagsAdjacent(r, c)) {
+            return 0;
+        }
+
+        int opened = 0;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int newI = index(newR, newC);
+
+                if (!isBomb(newI)) {
+                    opened += openSafeCell(newR, newC);
+                } else if (open(newI)) {
+                    opened++;
+                }
+            }
+        }
+
+        return opened;
+    }
+
+    public int getNumFlagsAdjacent(int r, int c) {
+
+        int flags = 0;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, rows - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+                if ((newR != r || newC != c) && isFlagged(index(newR, newC))) {
+                    flags++;
+                }
+            }
+        }
+
+        return flags;
+    }
+
+}
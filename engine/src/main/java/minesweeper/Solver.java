@@ -0,0 +1,553 @@
+package minesweeper;
+
+/**
+ * deduces which cells of a board are safe and which are bombs, using only what an opened board shows
+ * <p>
+ * each opened clue is a constraint on the closed cells around it. A clue whose bombs are all known makes the rest of
+ * its cells safe, and a clue with exactly as many closed cells as bombs left makes them all bombs. When neither
+ * applies, the clue is compared with each clue near enough to share cells with it.
+ * <p>
+ * the solver follows the board as cells are opened, so it only ever re-examines the clues whose surroundings have
+ * changed, rather than looking over the whole board on every turn
+ * <p>
+ * what it knows is kept as bits in a Frontier. The single clue rules are applied to every changed clue at once,
+ * 64 clues to a word of bits, and only the clues which they leave unsolved are compared with the clues near them -
+ * the cells around a clue, and around each clue near it, being read as a few windows of bits and compared with and,
+ * or and bitCount, rather than looked at one by one
+ */
+public class Solver implements BoardListener {
+
+    /**
+     * what the solver knows about a cell which has not been opened
+     */
+    static final byte UNKNOWN = 0, SAFE = 1, BOMB = 2;
+
+    private Board board;
+    private BoardState state;
+
+    /**
+     * what has been deduced about every cell, and which cells are opened, flagged or on the frontier
+     */
+    private Frontier frontier;
+
+    /**
+     * the clues whose surroundings have changed since the single clue rules were last applied to them,
+     * and a bit for each word of the board with any of them in it
+     */
+    private long[] pending, pendingWords;
+    private boolean anyPending;
+
+    /**
+     * the clues which the single clue rules left unsolved, still to be compared with the clues near them,
+     * which are gone through a word at a time from the cursor onwards, going round to the start of the board
+     */
+    private long[] queued;
+    private int cursor;
+
+    /**
+     * cells which have been deduced but not yet acted upon
+     */
+    private IntQueue safeCells, bombCells;
+
+    /**
+     * scratch space for the windows of bits around the clue being examined
+     */
+    private long[] windows;
+
+    /**
+     * scratch space for sweep - the planes of the counts around a word of clues and of their numbers,
+     * the clues which each rule applies to, the cells deduced from them, and the words those are in
+     */
+    private long[] counts, values;
+    private long[] safeClues, bombClues, deduced, firedWords, deducedWords, aroundWords;
+
+    public Solver(Board board) {
+
+        this.board = board;
+        this.state = board.getState();
+        this.frontier = new Frontier(state);
+
+        int words = (state.size() + 63) >>> 6;
+
+        this.queued = new long[words];
+        this.safeCells = new IntQueue();
+        this.bombCells = new IntQueue();
+
+        this.windows = new long[3];
+
+        this.counts = new long[8];
+        this.values = new long[4];
+        this.safeClues = new long[words];
+        this.bombClues = new long[words];
+        this.deduced = new long[words];
+        this.firedWords = new long[(words + 63) >>> 6];
+        this.deducedWords = new long[firedWords.length];
+        this.aroundWords = new long[firedWords.length];
+
+        state.addListener(this);
+
+        /**
+         * only the clues with something left to deduce around them need examining,
+         * which are found a word at a time rather than by looking around every opened cell
+         */
+        this.pending = frontier.unsolvedClueBits();
+        this.pendingWords = new long[firedWords.length];
+
+        for (int word = 0; word < words; word++) {
+            if (pending[word] != 0) {
+                pendingWords[word >>> 6] |= 1L << word;
+                anyPending = true;
+            }
+        }
+    }
+
+    /**
+     * stops following the board, once the solver is no longer needed
+     */
+    public void detach() {
+        state.removeListener(this);
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    Frontier getFrontier() {
+        return frontier;
+    }
+
+    public void cellOpened(int index) {
+        frontier.cellOpened(index);
+        markNeighboursDirty(index);
+    }
+
+    /**
+     * an undone cell is still whatever it was deduced to be, as the bombs never move -
+     * it only needs to be acted upon again, and the clues around it looked at again if nothing was deduced about it
+     */
+    public void cellClosed(int index) {
+
+        frontier.cellClosed(index);
+
+        if (getKnowledge(index) == SAFE) {
+            safeCells.add(index);
+        } else {
+            markNeighboursDirty(index);
+        }
+    }
+
+    /**
+     * called after the bomb in a closed cell, which nothing had been deduced about, has been moved away or moved in,
+     * so that the clues around it are examined again
+     *
+     * @param index the index of the cell
+     */
+    void bombMoved(int index) {
+        frontier.bombMoved(index);
+        markNeighboursDirty(index);
+    }
+
+    public void cellFlagged(int index) {
+
+        frontier.cellFlagged(index);
+
+        if (!frontier.isFlagged(index) && getKnowledge(index) == BOMB) {
+            bombCells.add(index);
+        }
+    }
+
+    /**
+     * @param index the index of a cell
+     * @return if the cell is closed and nothing has been deduced about it
+     */
+    public boolean isUnknown(int index) {
+        return frontier.isUnknown(index);
+    }
+
+    /**
+     * @param index the index of a cell
+     * @return what has been deduced about the cell - UNKNOWN, SAFE or BOMB
+     */
+    public int getKnowledge(int index) {
+        return !frontier.isKnown(index) ? UNKNOWN : frontier.isKnownBomb(index) ? BOMB : SAFE;
+    }
+
+    /**
+     * @return a cell which has been deduced to be safe and is still closed, or -1 if there is none
+     */
+    public int nextSafeCell() {
+
+        while (!safeCells.isEmpty()) {
+
+            int i = safeCells.poll();
+
+            if (!frontier.isOpened(i)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return a cell which has been deduced to be a bomb and is not yet flagged, or -1 if there is none
+     */
+    public int nextBombCell() {
+
+        while (!bombCells.isEmpty()) {
+
+            int i = bombCells.poll();
+
+            if (!frontier.isFlagged(i) && !frontier.isOpened(i)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * forgets the deduced bombs which have not been taken, for a player which never flags them -
+     * they are still known to be bombs, deduce does not need them taken
+     */
+    public void skipBombCells() {
+        bombCells.clear();
+    }
+
+    /**
+     * works through the clues which have changed until something new is deduced -
+     * the single clue rules being applied to all of them at once, before any are compared with each other
+     *
+     * @return if any new safe cell or bomb was deduced, false means the solver is stuck until more cells are opened
+     */
+    public boolean deduce() {
+
+        while (true) {
+
+            if (anyPending && sweep()) {
+                return true;
+            }
+
+            int i = nextQueued();
+
+            if (i == -1) {
+                return false;
+            }
+
+            if (examine(i)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * applies the single clue rules to every pending clue, a word of 64 clues at a time
+     * <p>
+     * the unknown cells and the known bombs around each clue of a word are counted into planes of bits, and compared
+     * with the planes of the clues' numbers - a clue whose bombs are all known being one whose number equals the
+     * count of known bombs, and a clue whose cells are all bombs one whose number equals both counts added up.
+     * The cells around the clues which a rule applies to are then found a word at a time, from the words of those
+     * clues, and so are the clues around those cells, which become pending in turn
+     *
+     * @return if anything new was deduced
+     */
+    private boolean sweep() {
+
+        anyPending = false;
+
+        boolean fired = false;
+
+        for (int k = 0; k < pendingWords.length; k++) {
+            for (long bits = pendingWords[k]; bits != 0; bits &= bits - 1) {
+
+                int word = k << 6 | Long.numberOfTrailingZeros(bits);
+                long clues = pending[word] & frontier.clues(word);
+
+                pending[word] = 0;
+
+                if (clues == 0) {
+                    continue;
+                }
+
+                frontier.countAround(word, counts);
+
+                for (int plane = 0; plane < values.length; plane++) {
+                    values[plane] = frontier.values(word, plane);
+                }
+
+                long anyUnknown = counts[0] | counts[1] | counts[2] | counts[3];
+
+                /**
+                 * the bits of the clues whose numbers differ from the count of known bombs, and from that count
+                 * added to the count of unknown cells, carrying from plane to plane
+                 */
+                long carry = 0, notBombs = 0, notCells = 0;
+
+                for (int plane = 0; plane < 4; plane++) {
+
+                    long u = counts[plane], b = counts[plane + 4];
+
+                    notBombs |= values[plane] ^ b;
+                    notCells |= values[plane] ^ (u ^ b ^ carry);
+                    carry = u & b | carry & (u ^ b);
+                }
+
+                long safe = clues & anyUnknown & ~notBombs;
+                long bombs = clues & anyUnknown & ~notCells;
+
+                /**
+                 * only the clues with unknown cells left around them, which neither rule applies to, are queued
+                 */
+                queued[word] = queued[word] & ~clues | clues & anyUnknown & ~(safe | bombs);
+
+                if ((safe | bombs) != 0) {
+                    safeClues[word] = safe;
+                    bombClues[word] = bombs;
+                    firedWords[k] |= 1L << word;
+                    fired = true;
+                }
+            }
+
+            pendingWords[k] = 0;
+        }
+
+        if (!fired) {
+            return false;
+        }
+
+        /**
+         * the words of the clues which a rule applied to are kept, to be cleared afterwards,
+         * and a copy of them is spread out to the words around them
+         */
+        System.arraycopy(firedWords, 0, deducedWords, 0, firedWords.length);
+        frontier.wordsAround(deducedWords, aroundWords);
+
+        for (int k = 0; k < aroundWords.length; k++) {
+            for (long bits = aroundWords[k]; bits != 0; bits &= bits - 1) {
+
+                int word = k << 6 | Long.numberOfTrailingZeros(bits);
+                long unknown = frontier.unknown(word);
+
+                long safe = unknown & frontier.nextTo(safeClues, word);
+                long bombs = unknown & frontier.nextTo(bombClues, word) & ~safe;
+
+                if ((safe | bombs) == 0) {
+                    continue;
+                }
+
+                frontier.setKnown(word, safe, false);
+                frontier.setKnown(word, bombs, true);
+
+                for (long cells = safe; cells != 0; cells &= cells - 1) {
+                    safeCells.add(word << 6 | Long.numberOfTrailingZeros(cells));
+                }
+                for (long cells = bombs; cells != 0; cells &= cells - 1) {
+                    bombCells.add(word << 6 | Long.numberOfTrailingZeros(cells));
+                }
+
+                deduced[word] = safe | bombs;
+                deducedWords[k] |= 1L << word;
+            }
+
+            aroundWords[k] = 0;
+        }
+
+        /**
+         * the clues are only cleared once every cell around them has been found
+         */
+        for (int k = 0; k < firedWords.length; k++) {
+            for (long bits = firedWords[k]; bits != 0; bits &= bits - 1) {
+                int word = k << 6 | Long.numberOfTrailingZeros(bits);
+                safeClues[word] = bombClues[word] = 0;
+            }
+            firedWords[k] = 0;
+        }
+
+        System.arraycopy(deducedWords, 0, firedWords, 0, deducedWords.length);
+        frontier.wordsAround(firedWords, aroundWords);
+
+        for (int k = 0; k < aroundWords.length; k++) {
+            for (long bits = aroundWords[k]; bits != 0; bits &= bits - 1) {
+
+                int word = k << 6 | Long.numberOfTrailingZeros(bits);
+                long clues = frontier.nextTo(deduced, word) & frontier.clues(word);
+
+                if (clues != 0) {
+                    pending[word] |= clues;
+                    pendingWords[word >>> 6] |= 1L << word;
+                    anyPending = true;
+                }
+            }
+
+            aroundWords[k] = 0;
+        }
+
+        for (int k = 0; k < deducedWords.length; k++) {
+            for (long bits = deducedWords[k]; bits != 0; bits &= bits - 1) {
+                deduced[k << 6 | Long.numberOfTrailingZeros(bits)] = 0;
+            }
+            deducedWords[k] = 0;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the next queued clue from the cursor onwards, taking it off of the queue, or -1 if none are queued
+     */
+    private int nextQueued() {
+
+        for (int n = 0; n <= queued.length; n++) {
+
+            long bits = queued[cursor];
+
+            if (bits != 0) {
+                queued[cursor] = bits & bits - 1;
+                return cursor << 6 | Long.numberOfTrailingZeros(bits);
+            }
+
+            cursor = cursor + 1 == queued.length ? 0 : cursor + 1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * applies the single clue rules to an opened cell, then compares it with every clue within two cells of it
+     *
+     * @param index the index of the cell
+     * @return if anything new was deduced
+     */
+    private boolean examine(int index) {
+
+        if (!frontier.isOpened(index) || state.isBomb(index)) {
+            return false;
+        }
+
+        int columns = state.getColumns();
+        int r = index / columns;
+        int c = index % columns;
+
+        frontier.around(r, c, windows);
+
+        long cellsA = windows[0];
+        int a = Long.bitCount(cellsA);
+
+        if (a == 0) {
+            return false;
+        }
+
+        int aLeft = state.getClue(index) - Long.bitCount(windows[1]);
+
+        if (aLeft == 0) {
+            markAll(cellsA, r, c, SAFE);
+            return true;
+        }
+        if (aLeft == a) {
+            markAll(cellsA, r, c, BOMB);
+            return true;
+        }
+
+        /**
+         * only now are the cells further out needed, for the clues near enough to share cells -
+         * which are compared in the same order as reading the board row by row
+         */
+        frontier.windows(r, c, windows);
+
+        long unknown = windows[0];
+        long knownBombs = windows[1];
+        long clues = windows[2];
+
+        for (long others = clues & Frontier.NEAR; others != 0; others &= others - 1) {
+
+            int bit = Long.numberOfTrailingZeros(others);
+            long around = Frontier.around(bit);
+
+            long cellsB = unknown & around;
+
+            if (cellsB == 0) {
+                continue;
+            }
+
+            int bLeft = state.getClue(frontier.cellAt(r, c, bit)) - Long.bitCount(knownBombs & around);
+
+            if (comparePair(cellsA, aLeft, cellsB, bLeft, r, c) || comparePair(cellsB, bLeft, cellsA, aLeft, r, c)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * deduces what it can about the cells which only the second clue covers
+     * <p>
+     * the shared cells hold at most min(shared, aLeft) of the first clue's bombs,
+     * and at least aLeft minus however many of them fit in the first clue's own cells,
+     * which bounds how many bombs are left for the second clue's own cells
+     *
+     * @param cellsA the unknown cells around the first clue, as bits of the window centred on (r, c)
+     * @param aLeft  the amount of bombs around the first clue which are not yet known
+     * @param cellsB the unknown cells around the second clue, as bits of the same window
+     * @param bLeft  the amount of bombs around the second clue which are not yet known
+     * @return if anything new was deduced
+     */
+    private boolean comparePair(long cellsA, int aLeft, long cellsB, int bLeft, int r, int c) {
+
+        long onlyB = cellsB & ~cellsA;
+
+        int only = Long.bitCount(onlyB);
+        int shared = Long.bitCount(cellsB) - only;
+
+        if (shared == 0 || only == 0) {
+            return false;
+        }
+
+        int onlyA = Long.bitCount(cellsA) - shared;
+
+        int fewestBombs = bLeft - Math.min(shared, aLeft);
+        int mostBombs = bLeft - Math.max(0, aLeft - onlyA);
+
+        if (fewestBombs == only) {
+            markAll(onlyB, r, c, BOMB);
+            return true;
+        }
+        if (mostBombs == 0) {
+            markAll(onlyB, r, c, SAFE);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param cells the cells, as bits of the window centred on (r, c)
+     */
+    private void markAll(long cells, int r, int c, byte kind) {
+
+        for (; cells != 0; cells &= cells - 1) {
+
+            int cell = frontier.cellAt(r, c, Long.numberOfTrailingZeros(cells));
+
+            frontier.setKnown(cell, kind == BOMB);
+
+            if (kind == SAFE) {
+                safeCells.add(cell);
+            } else {
+                bombCells.add(cell);
+            }
+
+            markNeighboursDirty(cell);
+        }
+    }
+
+    /**
+     * makes a cell and the cells around it pending - only the clues among them are looked at, so the rest are
+     * marked too rather than each being checked first
+     */
+    private void markNeighboursDirty(int index) {
+        frontier.setAround(index, pending, null, pendingWords);
+        anyPending = true;
+    }
+
+}
@@ -0,0 +1,107 @@
+package minesweeper;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * runs a pass over every cell of a board as stripes of consecutive rows, in parallel, merging what each stripe found
+ * <p>
+ * stripes are cut on multiples of 64 cells, so that each stripe owns whole words of any bitmap of the board and no two
+ * stripes ever write to the same word. A board with fewer cells than PARALLEL_CELLS, or a pass with only one thread
+ * to run on, is done as a single stripe on the calling thread, as splitting it would cost more than it saves.
+ * <p>
+ * a pass started from inside a ForkJoinPool runs on that pool's threads, otherwise on the common pool,
+ * so the threads a pass may use are chosen by where it is started from
+ */
+final class Stripes {
+
+    /**
+     * the fewest cells a board has for its passes to be split, which can be changed with -Dminesweeper.parallelCells -
+     * see ParallelPassBenchmark for where splitting starts to pay
+     */
+    static final int PARALLEL_CELLS = Integer.getInteger("minesweeper.parallelCells", 1 << 18);
+    /**
+     * the fewest cells a stripe is given, however many threads there are
+     */
+    private static final int MIN_STRIPE_CELLS = 1 << 14;
+
+    private Stripes() {
+    }
+
+    /**
+     * the work done on one stripe
+     */
+    interface Pass<T> {
+
+        /**
+         * @param from the first cell of the stripe, a multiple of 64
+         * @param to   the cell after the last of the stripe, a multiple of 64 unless it is the end of the board
+         * @return what the stripe found, to be merged with what the others found
+         */
+        T run(int from, int to);
+    }
+
+    /**
+     * @param size  the cells on the board
+     * @param pass  the work done on each stripe
+     * @param merge merges what two neighbouring stripes found
+     * @return what every stripe found, merged
+     */
+    static <T> T run(int size, Pass<T> pass, BinaryOperator<T> merge) {
+
+        int threads = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+
+        if (size < PARALLEL_CELLS || threads < 2) {
+            return pass.run(0, size);
+        }
+
+        /**
+         * a few stripes per thread, so that a thread which finishes early can take on another's
+         */
+        int stripeCells = Math.max(MIN_STRIPE_CELLS, (int) (((long) size + threads * 4L - 1) / (threads * 4L)));
+        stripeCells = (stripeCells + 63) & ~63;
+
+        return new Stripe<>(pass, merge, stripeCells, 0, size).invoke();
+    }
+
+    /**
+     * a range of cells, split in half until it is small enough to be a single stripe
+     */
+    @SuppressWarnings("serial")
+    private static class Stripe<T> extends RecursiveTask<T> {
+
+        private final Pass<T> pass;
+        private final BinaryOperator<T> merge;
+        private final int stripeCells;
+        private final int from, to;
+
+        private Stripe(Pass<T> pass, BinaryOperator<T> merge, int stripeCells, int from, int to) {
+            this.pass = pass;
+            this.merge = merge;
+            this.stripeCells = stripeCells;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected T compute() {
+
+            if (to - from <= stripeCells) {
+                return pass.run(from, to);
+            }
+
+            int middle = (from + (to - from) / 2) & ~63;
+
+            Stripe<T> first = new Stripe<>(pass, merge, stripeCells, from, middle);
+            first.fork();
+
+            T second = new Stripe<>(pass, merge, stripeCells, middle, to).compute();
+
+            return merge.apply(first.join(), second);
+        }
+    }
+
+}
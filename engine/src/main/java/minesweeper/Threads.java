@@ -0,0 +1,39 @@
+package minesweeper;
+
+import java.lang.reflect.Method;
+
+/**
+ * makes the threads which background work and connections run on
+ */
+class Threads {
+
+    private Threads() {
+    }
+
+    /**
+     * makes a virtual thread where the JDK has them (found reflectively, as the build targets a JDK without them),
+     * and otherwise a daemon platform thread
+     *
+     * @param name the name of the thread
+     * @param task what the thread runs
+     * @return the thread, not yet started
+     */
+    static Thread newThread(String name, Runnable task) {
+
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = Class.forName("java.lang.Thread$Builder").getMethod("name", String.class).invoke(builder, name);
+            Method unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+
+            return (Thread) unstarted.invoke(builder, task);
+
+        } catch (ReflectiveOperationException | RuntimeException e) {
+
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+
+}
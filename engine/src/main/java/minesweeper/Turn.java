@@ -1,3 +1,5 @@
+package minesweeper;
+
 /**
  * a class which encapsulates all data required to decide which operations are to be done onto a cell in a board
  */
@@ -7,16 +9,24 @@ public class Turn {
     static int FLAGGING = 1;
     static int SWEEPING = 2;
 
-    private Cell chosenCell;
+    /**
+     * the row and column of the chosen cell, or -1 if no cell was chosen
+     */
+    private int row, column;
     private int move;
 
-    public Turn(Cell chosenCell, int move) {
-        this.chosenCell = chosenCell;
+    public Turn(int row, int column, int move) {
+        this.row = row;
+        this.column = column;
         this.move = move;
     }
 
-    public Cell getChosenCell() {
-        return chosenCell;
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
     }
 
     public int getMove() {
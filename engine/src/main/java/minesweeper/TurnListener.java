@@ -0,0 +1,15 @@
+package minesweeper;
+
+/**
+ * an interface for anything which needs to follow the turns applied to a game, such as a journal of the game
+ */
+interface TurnListener {
+
+    /**
+     * called after a turn has been applied to the board, including revealing the board if the turn ended the game
+     *
+     * @param turn the turn
+     */
+    void turnApplied(Turn turn);
+
+}
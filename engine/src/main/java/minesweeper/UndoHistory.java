@@ -0,0 +1,337 @@
+package minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * takes back and puts back the turns applied to a game
+ * <p>
+ * while a turn is applied, every cell it opens or flags is written down, so each turn is kept as the short list of
+ * cells it changed rather than as a copy of the board. Undoing a turn which opened thousands of cells with a flood
+ * fill costs as much as those thousands of cells, and undoing a flag costs one. The reveal at the end of a game,
+ * which changes most of the board, is kept as bitmaps instead.
+ * <p>
+ * only so many turns and so many changed cells are kept, dropping the oldest turns first, so memory stays bounded
+ * however long the game. The latest turn is always kept, however many cells it changed.
+ * <p>
+ * a player can use the same history to try moves out - apply them to the game, look at the board, and undo them
+ */
+public class UndoHistory implements BoardListener, TurnListener {
+
+    static final int DEFAULT_MAX_TURNS = 1 << 12;
+    static final int DEFAULT_MAX_CELLS = 1 << 20;
+
+    private final Game game;
+    private final BoardState state;
+
+    private final int maxTurns;
+    private final long maxCells;
+
+    /**
+     * the turns which can be undone, latest last, and the turns which have been undone and can be redone, latest last
+     */
+    private final ArrayDeque<ChangeSet> undoable, redoable;
+    private long storedCells;
+
+    /**
+     * the cells changed so far by the turn being applied, with opened cells written as their index
+     * and flagged or un-flagged cells written as ~index
+     */
+    private int[] changes;
+    private int numChanges;
+
+    /**
+     * the cells opened and un-flagged by revealing the board, if the turn being applied ended the game -
+     * kept as bitmaps, as a reveal changes most of the board at once
+     */
+    private long[] revealedOpened, revealedUnflagged;
+
+    /**
+     * how the game was after the last turn, for the next turn to go back to
+     */
+    private boolean bombsSet, won, lost;
+
+    /**
+     * set while cells are being changed back, so that those changes are not written down as a turn
+     */
+    private boolean restoring;
+
+    public UndoHistory(Game game) {
+        this(game, DEFAULT_MAX_TURNS, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * @param game     the game whose turns are to be undone
+     * @param maxTurns how many turns can be undone at most
+     * @param maxCells how many changed cells, over every turn kept, can be stored at most
+     */
+    public UndoHistory(Game game, int maxTurns, long maxCells) {
+
+        if (maxTurns < 1 || maxCells < 1) {
+            throw new IllegalArgumentException("at least one turn and cell must be kept: " + maxTurns + ", " + maxCells);
+        }
+
+        this.game = game;
+        this.state = game.getBoard().getState();
+        this.maxTurns = maxTurns;
+        this.maxCells = maxCells;
+
+        this.undoable = new ArrayDeque<>();
+        this.redoable = new ArrayDeque<>();
+        this.changes = new int[64];
+
+        this.bombsSet = game.getBoard().bombsSet();
+        this.won = game.isWon();
+        this.lost = game.isLost();
+
+        state.addListener(this);
+        game.addListener(this);
+    }
+
+    /**
+     * stops following the game, once the history is no longer needed
+     */
+    public void detach() {
+        state.removeListener(this);
+        game.removeListener(this);
+    }
+
+    public boolean canUndo() {
+        return !undoable.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoable.isEmpty();
+    }
+
+    /**
+     * @return how many turns can be undone
+     */
+    public int size() {
+        return undoable.size();
+    }
+
+    /**
+     * @return how many changed cells are being kept, over every turn which can be undone or redone
+     */
+    public long getStoredCells() {
+        return storedCells;
+    }
+
+    /**
+     * takes back the latest turn, closing the cells it opened and flagging back the cells it flagged -
+     * taking back the first turn also takes the bombs back off of the board
+     *
+     * @return whether there was a turn to take back
+     */
+    public boolean undo() {
+
+        ChangeSet turn = undoable.pollLast();
+
+        if (turn == null) {
+            return false;
+        }
+
+        restoring = true;
+
+        if (turn.revealedOpened != null) {
+            unreveal(turn.revealedOpened, turn.revealedUnflagged);
+        }
+
+        for (int i = turn.cells.length - 1; i >= 0; i--) {
+
+            int cell = turn.cells[i];
+
+            if (cell >= 0) {
+                state.close(cell);
+            } else {
+                state.flag(~cell);
+            }
+        }
+
+        if (turn.bombs != null) {
+            game.getBoard().removeBombs();
+        }
+
+        restoring = false;
+
+        game.restore(game.getTurnsPlayed() - 1, turn.wonBefore, turn.lostBefore);
+        redoable.addLast(turn);
+        remember();
+
+        return true;
+    }
+
+    /**
+     * puts back the latest turn taken back, without having to apply the turn again
+     *
+     * @return whether there was a turn to put back
+     */
+    public boolean redo() {
+
+        ChangeSet turn = redoable.pollLast();
+
+        if (turn == null) {
+            return false;
+        }
+
+        restoring = true;
+
+        if (turn.bombs != null) {
+            game.getBoard().placeBombs(turn.bombs);
+        }
+
+        for (int cell : turn.cells) {
+            if (cell >= 0) {
+                state.open(cell);
+            } else {
+                state.flag(~cell);
+            }
+        }
+
+        if (turn.revealedOpened != null) {
+            state.revealAll();
+        }
+
+        restoring = false;
+
+        game.restore(game.getTurnsPlayed() + 1, turn.wonAfter, turn.lostAfter);
+        undoable.addLast(turn);
+        remember();
+
+        return true;
+    }
+
+    public void cellOpened(int index) {
+        record(index);
+    }
+
+    public void cellFlagged(int index) {
+        record(~index);
+    }
+
+    public void cellsRevealed(long[] opened, long[] unflagged) {
+
+        if (restoring) {
+            return;
+        }
+
+        revealedOpened = opened;
+        revealedUnflagged = unflagged;
+    }
+
+    /**
+     * closes the cells a reveal opened and flags back the cells it un-flagged
+     */
+    private void unreveal(long[] opened, long[] unflagged) {
+
+        for (int word = 0; word < opened.length; word++) {
+            for (long bits = opened[word]; bits != 0; bits &= bits - 1) {
+                state.close(word << 6 | Long.numberOfTrailingZeros(bits));
+            }
+        }
+
+        for (int word = 0; word < unflagged.length; word++) {
+            for (long bits = unflagged[word]; bits != 0; bits &= bits - 1) {
+                state.flag(word << 6 | Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+
+    private void record(int change) {
+
+        if (restoring) {
+            return;
+        }
+
+        if (numChanges == changes.length) {
+            changes = Arrays.copyOf(changes, numChanges * 2);
+        }
+
+        changes[numChanges++] = change;
+    }
+
+    /**
+     * closes the changes written down since the last turn into this turn's change set,
+     * and forgets the turns which were undone, as they can no longer be redone
+     */
+    public void turnApplied(Turn turn) {
+
+        /**
+         * the bombs placed by the first turn are kept as they were placed, since they may not have come from the seed
+         */
+        long[] bombs = !bombsSet && game.getBoard().bombsSet() ? state.toBitmap(BoardState.BOMB) : null;
+
+        ChangeSet set = new ChangeSet(Arrays.copyOf(changes, numChanges), bombs, revealedOpened, revealedUnflagged,
+                won, lost, game.isWon(), game.isLost());
+
+        numChanges = 0;
+        revealedOpened = revealedUnflagged = null;
+
+        /**
+         * the buffer is shrunk again after a huge flood fill, so it does not hold on to that memory between turns
+         */
+        if (changes.length > 1024) {
+            changes = new int[64];
+        }
+
+        for (ChangeSet undone : redoable) {
+            storedCells -= undone.size();
+        }
+        redoable.clear();
+
+        undoable.addLast(set);
+        storedCells += set.size();
+
+        while (undoable.size() > 1 && (undoable.size() > maxTurns || storedCells > maxCells)) {
+            storedCells -= undoable.pollFirst().size();
+        }
+
+        remember();
+    }
+
+    private void remember() {
+        bombsSet = game.getBoard().bombsSet();
+        won = game.isWon();
+        lost = game.isLost();
+    }
+
+    /**
+     * the cells one turn changed, in the order it changed them, and how the game was before and after it
+     */
+    private static class ChangeSet {
+
+        private final int[] cells;
+        /**
+         * the bombs the turn placed, if it was the first turn, otherwise null
+         */
+        private final long[] bombs;
+        /**
+         * the cells the turn opened and un-flagged by revealing the board, if it ended the game, otherwise null
+         */
+        private final long[] revealedOpened, revealedUnflagged;
+        private final boolean wonBefore, lostBefore, wonAfter, lostAfter;
+
+        ChangeSet(int[] cells, long[] bombs, long[] revealedOpened, long[] revealedUnflagged,
+                  boolean wonBefore, boolean lostBefore, boolean wonAfter, boolean lostAfter) {
+
+            this.cells = cells;
+            this.bombs = bombs;
+            this.revealedOpened = revealedOpened;
+            this.revealedUnflagged = revealedUnflagged;
+            this.wonBefore = wonBefore;
+            this.lostBefore = lostBefore;
+            this.wonAfter = wonAfter;
+            this.lostAfter = lostAfter;
+        }
+
+        /**
+         * @return how many changed cells the turn is counted as keeping, a bitmap's 32 bits counting as one
+         */
+        long size() {
+            return cells.length + (revealedOpened == null ? 0 : revealedOpened.length * 4L);
+        }
+
+    }
+
+}
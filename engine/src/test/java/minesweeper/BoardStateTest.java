@@ -0,0 +1,140 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * checks the running counts kept by BoardState against a full rescan of the cells, after every one of millions of
+ * random moves - placing, removing and moving bombs, opening and closing cells, flagging, sweeping, revealing
+ * everything and restoring from bitmaps
+ */
+class BoardStateTest {
+
+    @Test
+    void countersMatchRescanOnSmallBoards() {
+
+        SplittableRandom random = new SplittableRandom(1);
+
+        int[][] sizes = {{1, 1}, {1, 40}, {40, 1}, {3, 3}, {9, 9}, {16, 30}};
+
+        for (int round = 0; round < 200; round++) {
+
+            int[] size = sizes[round % sizes.length];
+            play(new Board(size[0], size[1], 0, random.nextLong()), random, 10_000);
+        }
+    }
+
+    /**
+     * a board large enough for revealAll and restore to be split into stripes
+     */
+    @Test
+    void countersMatchRescanOnStripedBoard() {
+        play(new Board(600, 600, 0, 0), new SplittableRandom(2), 500);
+    }
+
+    private static void play(Board board, SplittableRandom random, int moves) {
+
+        BoardState state = board.getState();
+
+        for (int move = 0; move < moves; move++) {
+
+            int i = random.nextInt(state.size());
+            int r = i / state.getColumns();
+            int c = i % state.getColumns();
+
+            switch (random.nextInt(100)) {
+                case 0:
+                    state.revealAll();
+                    break;
+                case 1:
+                    state.restore(randomBitmap(state, random, 0.2), randomBitmap(state, random, 0.3),
+                            randomBitmap(state, random, 0.1));
+                    break;
+                case 2:
+                case 3:
+                    board.sweep(r, c);
+                    break;
+                default:
+                    switch (random.nextInt(7)) {
+                        case 0:
+                            state.setBomb(i);
+                            break;
+                        case 1:
+                            state.clearBomb(i);
+                            break;
+                        case 2:
+                            int to = random.nextInt(state.size());
+                            if (state.isBomb(i) && !state.isBomb(to)) {
+                                state.moveBomb(i, to);
+                            }
+                            break;
+                        case 3:
+                            state.open(i);
+                            break;
+                        case 4:
+                            state.close(i);
+                            break;
+                        case 5:
+                            state.flag(i);
+                            break;
+                        default:
+                            board.openSafeCell(r, c);
+                            break;
+                    }
+            }
+
+            assertCounts(board, move);
+        }
+    }
+
+    private static void assertCounts(Board board, int move) {
+
+        BoardState state = board.getState();
+        int bombs = 0, openedSafe = 0, openedBombs = 0, flagged = 0;
+
+        for (int i = 0; i < state.size(); i++) {
+
+            if (state.isBomb(i)) {
+                bombs++;
+                if (state.isOpened(i)) {
+                    openedBombs++;
+                }
+            } else if (state.isOpened(i)) {
+                openedSafe++;
+            }
+
+            if (state.isFlagged(i)) {
+                flagged++;
+            }
+        }
+
+        String where = state.getRows() + "x" + state.getColumns() + " after move " + move;
+
+        assertEquals(bombs, state.getNumBombs(), "bombs on " + where);
+        assertEquals(openedSafe, state.getNumOpenedSafe(), "opened safe cells on " + where);
+        assertEquals(openedBombs, state.getNumOpenedBombs(), "opened bombs on " + where);
+        assertEquals(flagged, state.getNumFlagged(), "flags on " + where);
+
+        assertEquals(flagged, board.numCellsFlagged(), "numCellsFlagged on " + where);
+        assertEquals(openedBombs > 0, board.anyBombOpened(), "anyBombOpened on " + where);
+        assertEquals(openedSafe == state.size() - bombs && openedBombs == 0, board.allButBombsOpened(),
+                "allButBombsOpened on " + where);
+    }
+
+    private static long[] randomBitmap(BoardState state, SplittableRandom random, double density) {
+
+        long[] bitmap = new long[(state.size() + 63) >>> 6];
+
+        for (int i = 0; i < state.size(); i++) {
+            if (random.nextDouble() < density) {
+                bitmap[i >>> 6] |= 1L << i;
+            }
+        }
+
+        return bitmap;
+    }
+
+}
@@ -0,0 +1,36 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * checks that a command longer than the server allows is cut off rather than kept, and the connection carries on
+ */
+class GameServerTest {
+
+    @Test
+    void overlongLineIsCutOff() throws IOException {
+
+        String overlong = "OPEN 1 2 " + "3".repeat(10 * GameServer.MAX_LINE_LENGTH);
+        StringReader in = new StringReader(overlong + "\nQUIT\r\nVIEW 1");
+        StringBuilder line = new StringBuilder();
+
+        assertTrue(GameServer.readLine(in, line));
+        assertEquals(GameServer.MAX_LINE_LENGTH + 1, line.length());
+
+        assertTrue(GameServer.readLine(in, line));
+        assertEquals("QUIT\r", line.toString());
+
+        assertTrue(GameServer.readLine(in, line));
+        assertEquals("VIEW 1", line.toString());
+
+        assertFalse(GameServer.readLine(in, line));
+    }
+
+}
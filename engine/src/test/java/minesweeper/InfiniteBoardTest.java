@@ -0,0 +1,77 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * checks that closing an infinite board deletes the chunks it spilled to disk, and the directory if it made it
+ */
+class InfiniteBoardTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void closeDeletesSpilledChunks() throws IOException {
+
+        InfiniteBoard board = spill(new InfiniteBoard(1, 0.2, 1, directory));
+
+        assertTrue(board.getSpilledChunks() > 0);
+        assertEquals(board.getSpilledChunks(), list(directory).size());
+
+        board.close();
+
+        assertEquals(0, board.getSpilledChunks());
+        assertEquals(Set.of(), list(directory));
+        assertTrue(Files.isDirectory(directory), "a directory passed in is left in place");
+    }
+
+    @Test
+    void closeDeletesTemporaryDirectory() throws IOException {
+
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        Set<Path> before = list(tmp);
+
+        InfiniteBoard board = spill(new InfiniteBoard(1, 0.2, 1, null));
+
+        Set<Path> made = list(tmp);
+        made.removeAll(before);
+        made.removeIf(path -> !path.getFileName().toString().startsWith("minesweeper-chunks"));
+
+        assertEquals(1, made.size());
+
+        board.close();
+
+        assertTrue(Files.notExists(made.iterator().next()));
+    }
+
+    /**
+     * flags a cell in each of a row of chunks, with only one chunk allowed in memory, so every other chunk is spilled
+     */
+    private static InfiniteBoard spill(InfiniteBoard board) {
+
+        for (int chunk = 0; chunk < 5; chunk++) {
+            board.flag(100, chunk * 64 + 1);
+        }
+
+        return board;
+    }
+
+    private static Set<Path> list(Path directory) throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toSet());
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * checks that a journal written while turns are undone and redone holds exactly the turns which stand,
+ * so that replaying it gives back the board as it was left
+ */
+class MoveJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void undoAndRedoKeepJournalToStandingTurns() throws IOException {
+
+        SplittableRandom random = new SplittableRandom(5);
+
+        for (int round = 0; round < 50; round++) {
+
+            Board board = new Board(16, 16, 40, random.nextLong(), round % 2 == 0);
+            Game game = new Game(board);
+            UndoHistory history = new UndoHistory(game);
+
+            Path file = directory.resolve(round + ".journal");
+
+            try (MoveJournal.Writer journal = new MoveJournal.Writer(file, board)) {
+
+                game.addListener(journal);
+
+                for (int move = 0; move < 200; move++) {
+
+                    switch (random.nextInt(5)) {
+                        case 0:
+                            if (history.undo()) {
+                                journal.takeBack();
+                            }
+                            break;
+                        case 1:
+                            if (history.redo()) {
+                                journal.putBack();
+                            }
+                            break;
+                        default:
+                            game.applyTurn(new Turn(random.nextInt(16), random.nextInt(16), random.nextInt(3)));
+                            break;
+                    }
+                }
+            }
+
+            MoveJournal read = MoveJournal.read(file);
+            Game replayed = read.newGame();
+
+            for (int turn = 0; turn < read.size(); turn++) {
+                replayed.applyTurn(read.getTurn(turn));
+            }
+
+            BoardState played = board.getState();
+            BoardState state = replayed.getBoard().getState();
+
+            assertEquals(board.bombsSet(), replayed.getBoard().bombsSet(), "bombs set in round " + round);
+            assertEquals(game.isWon(), replayed.isWon(), "won in round " + round);
+            assertEquals(game.isLost(), replayed.isLost(), "lost in round " + round);
+
+            for (int i = 0; i < played.size(); i++) {
+                assertEquals(played.get(i), state.get(i), "cell " + i + " in round " + round);
+            }
+        }
+    }
+
+    @Test
+    void undoingEveryTurnEmptiesJournal() throws IOException {
+
+        Board board = new Board(9, 9, 10, 1, false);
+        Game game = new Game(board);
+        UndoHistory history = new UndoHistory(game);
+
+        Path file = directory.resolve("empty.journal");
+
+        try (MoveJournal.Writer journal = new MoveJournal.Writer(file, board)) {
+
+            game.addListener(journal);
+            game.applyTurn(new Turn(4, 4, Turn.OPENING));
+            game.applyTurn(new Turn(0, 0, Turn.FLAGGING));
+
+            while (history.undo()) {
+                journal.takeBack();
+            }
+
+            assertFalse(journal.takeBack());
+        }
+
+        assertEquals(0, MoveJournal.read(file).size());
+    }
+
+}
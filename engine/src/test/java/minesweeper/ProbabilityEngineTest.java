@@ -0,0 +1,206 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * checks the chances against every arrangement of the bombs on small boards, and that on boards too large to count
+ * within the budget, a sampled chance never claims a cell is certain
+ */
+class ProbabilityEngineTest {
+
+    @Test
+    void chancesMatchEveryArrangement() {
+
+        SplittableRandom random = new SplittableRandom(9);
+
+        for (int round = 0; round < 40; round++) {
+
+            int rows = 5 + random.nextInt(3), columns = 5 + random.nextInt(3);
+            Board board = stuck(rows, columns, rows * columns / 5, random.nextLong(), 0);
+            Solver solver = new Solver(board);
+
+            ProbabilityEngine probabilities = new ProbabilityEngine(0, round);
+            probabilities.setStepBudget(Long.MAX_VALUE / 4);
+            probabilities.compute(board, solver);
+
+            assertFalse(probabilities.isApproximate());
+
+            double[] expected = enumerate(board, solver);
+            int[] frontier = probabilities.getFrontier();
+
+            for (int i = 0; i < frontier.length; i++) {
+                assertEquals(expected[frontier[i]], probabilities.getProbability(i), 1e-9, "cell " + frontier[i]);
+            }
+
+            for (int i = 0; i < expected.length; i++) {
+                if (solver.isUnknown(i) && !probabilities.isFrontier(i)) {
+                    assertEquals(expected[i], probabilities.getInteriorProbability(), 1e-9, "interior cell " + i);
+                }
+            }
+
+            solver.detach();
+        }
+    }
+
+    @Test
+    void sampledChancesAreNeverCertain() {
+
+        boolean sampled = false;
+
+        for (long seed = 0; seed < 6; seed++) {
+
+            Board board = stuck(60, 60, 60 * 60 * 3 / 10, seed, 0.15);
+            Solver solver = new Solver(board);
+
+            /**
+             * a budget far too small to count the largest components
+             */
+            ProbabilityEngine probabilities = new ProbabilityEngine(0, seed);
+            probabilities.setStepBudget(1000);
+            probabilities.compute(board, solver);
+
+            sampled |= probabilities.isApproximate();
+
+            BoardState state = board.getState();
+            int[] frontier = probabilities.getFrontier();
+
+            for (int i = 0; i < frontier.length; i++) {
+                if (state.isBomb(frontier[i])) {
+                    assertNotEquals(0.0, probabilities.getProbability(i), "bomb " + frontier[i] + " with seed " + seed);
+                } else {
+                    assertNotEquals(1.0, probabilities.getProbability(i), "safe " + frontier[i] + " with seed " + seed);
+                }
+            }
+
+            solver.detach();
+        }
+
+        assertTrue(sampled);
+    }
+
+    /**
+     * a board opened in the middle, and at a share of its other safe cells, played by the solver until it is stuck
+     */
+    private static Board stuck(int rows, int columns, int numBombs, long seed, double opened) {
+
+        Board board = new Board(rows, columns, numBombs, seed);
+        board.placeBombs(rows / 2, columns / 2);
+        board.openSafeCell(rows / 2, columns / 2);
+
+        BoardState state = board.getState();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = 0; i < state.size(); i++) {
+            if (!state.isBomb(i) && random.nextDouble() < opened) {
+                board.openSafeCell(i / columns, i % columns);
+            }
+        }
+
+        Solver solver = new Solver(board);
+
+        do {
+            for (int i = solver.nextBombCell(); i != -1; i = solver.nextBombCell()) {
+                board.flag(i / columns, i % columns);
+            }
+            for (int i = solver.nextSafeCell(); i != -1; i = solver.nextSafeCell()) {
+                board.openSafeCell(i / columns, i % columns);
+            }
+        } while (solver.deduce());
+
+        solver.detach();
+
+        return board;
+    }
+
+    /**
+     * @return the chance of each cell being a bomb, from every way the bombs the solver doesn't know of can be placed
+     * in the cells it knows nothing about
+     */
+    private static double[] enumerate(Board board, Solver solver) {
+
+        BoardState state = board.getState();
+        List<Integer> unknown = new ArrayList<>();
+        int knownBombs = 0;
+
+        for (int i = 0; i < state.size(); i++) {
+            if (solver.isUnknown(i)) {
+                unknown.add(i);
+            } else if (!state.isOpened(i) && solver.getKnowledge(i) == Solver.BOMB) {
+                knownBombs++;
+            }
+        }
+
+        int[] cells = unknown.stream().mapToInt(Integer::intValue).toArray();
+        double[] bombCounts = new double[state.size()];
+        double[] total = new double[1];
+
+        place(state, solver, cells, 0, board.getNumBombs() - knownBombs, new boolean[state.size()], bombCounts, total);
+
+        for (int i = 0; i < bombCounts.length; i++) {
+            bombCounts[i] /= total[0];
+        }
+
+        return bombCounts;
+    }
+
+    private static void place(BoardState state, Solver solver, int[] cells, int position, int bombs, boolean[] placed,
+                              double[] bombCounts, double[] total) {
+
+        if (bombs < 0 || bombs > cells.length - position) {
+            return;
+        }
+
+        if (position == cells.length) {
+
+            for (int i = 0; i < state.size(); i++) {
+                if (state.isOpened(i) && !state.isBomb(i) && bombsAround(state, solver, placed, i) != state.getClue(i)) {
+                    return;
+                }
+            }
+
+            total[0]++;
+            for (int cell : cells) {
+                if (placed[cell]) {
+                    bombCounts[cell]++;
+                }
+            }
+            return;
+        }
+
+        for (int value = 0; value <= 1; value++) {
+            placed[cells[position]] = value == 1;
+            place(state, solver, cells, position + 1, bombs - value, placed, bombCounts, total);
+        }
+        placed[cells[position]] = false;
+    }
+
+    private static int bombsAround(BoardState state, Solver solver, boolean[] placed, int index) {
+
+        int columns = state.getColumns();
+        int r = index / columns, c = index % columns;
+        int bombs = 0;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int i = newR * columns + newC;
+
+                if (placed[i] || !state.isOpened(i) && solver.getKnowledge(i) == Solver.BOMB) {
+                    bombs++;
+                }
+            }
+        }
+
+        return bombs;
+    }
+
+}
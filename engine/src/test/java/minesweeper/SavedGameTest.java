@@ -0,0 +1,185 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * checks that a saved game is read back exactly as it was written, and that a corrupt save is turned away
+ * with an IOException rather than crashing whatever loads it
+ */
+class SavedGameTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsEveryCell() throws IOException {
+
+        /**
+         * sizes whose cells do and do not fill their last word of each bitmap
+         */
+        int[][] sizes = {{1, 1}, {8, 8}, {30, 16}, {101, 37}, {512, 512}};
+
+        for (int[] size : sizes) {
+
+            int rows = size[0], columns = size[1];
+            Board board = new Board(rows, columns, rows * columns / 6, 42, false);
+
+            board.placeBombs(rows / 2, columns / 2);
+            board.openSafeCell(rows / 2, columns / 2);
+
+            /**
+             * a flag on the first closed cell, if there is one - a flagged cell is never opened
+             */
+            for (int i = 0; i < rows * columns; i++) {
+                if (!board.isOpened(i / columns, i % columns)) {
+                    board.flag(i / columns, i % columns);
+                    break;
+                }
+            }
+
+            Path file = directory.resolve(rows + "x" + columns + ".save");
+            new SavedGame(board, 12345).write(file);
+
+            SavedGame loaded = SavedGame.read(file);
+            Board read = loaded.getBoard();
+
+            assertEquals(12345, loaded.getElapsedMillis());
+            assertEquals(board.getNumBombs(), read.getNumBombs());
+            assertEquals(board.getSeed(), read.getSeed());
+            assertTrue(read.bombsSet());
+            assertFalse(read.isNoGuess());
+
+            BoardState saved = board.getState();
+            BoardState state = read.getState();
+
+            assertEquals(rows, state.getRows());
+            assertEquals(columns, state.getColumns());
+            assertEquals(saved.getNumBombs(), state.getNumBombs());
+            assertEquals(saved.getNumOpenedSafe(), state.getNumOpenedSafe());
+            assertEquals(saved.getNumFlagged(), state.getNumFlagged());
+
+            for (int i = 0; i < saved.size(); i++) {
+                assertEquals(saved.get(i), state.get(i), "cell " + i + " of " + rows + "x" + columns);
+            }
+        }
+    }
+
+    @Test
+    void roundTripKeepsUnplacedBoard() throws IOException {
+
+        Board board = new Board(9, 9, 10, 7, true);
+
+        Path file = directory.resolve("unplaced.save");
+        new SavedGame(board, 0).write(file);
+
+        Board read = SavedGame.read(file).getBoard();
+
+        assertFalse(read.bombsSet());
+        assertTrue(read.isNoGuess());
+        assertEquals(10, read.getNumBombs());
+        assertEquals(0, read.getState().getNumBombs());
+    }
+
+    @Test
+    void bitsPastLastCellAreCorrupt() throws IOException {
+
+        /**
+         * 9x9 is 81 cells, so the last word of each bitmap has 47 bits past the last cell
+         */
+        for (int bitmap = 0; bitmap < 3; bitmap++) {
+
+            int word = bitmap * 2 + 1;
+            Path file = corrupt(buffer -> buffer.putLong(SavedGame.HEADER_BYTES + word * 8,
+                    buffer.getLong(SavedGame.HEADER_BYTES + word * 8) | 1L << 63));
+
+            assertCorrupt(file);
+        }
+    }
+
+    @Test
+    void emptyBoardIsCorrupt() throws IOException {
+
+        /**
+         * rows of 0, with the file cut down to no bitmap words so that its length still fits
+         */
+        Path file = corrupt(buffer -> buffer.putInt(8, 0));
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), SavedGame.HEADER_BYTES));
+
+        assertCorrupt(file);
+
+        assertCorrupt(corrupt(buffer -> buffer.putInt(12, 0)));
+    }
+
+    @Test
+    void bombCountOtherThanHeaderIsCorrupt() throws IOException {
+
+        assertCorrupt(corrupt(buffer -> buffer.putInt(16, buffer.getInt(16) + 1)));
+        assertCorrupt(corrupt(buffer -> buffer.putInt(16, -1)));
+        assertCorrupt(corrupt(buffer -> buffer.putLong(SavedGame.HEADER_BYTES,
+                buffer.getLong(SavedGame.HEADER_BYTES) ^ 1L << 20)));
+    }
+
+    @Test
+    void openedFlaggedCellIsCorrupt() throws IOException {
+
+        /**
+         * the opened bitmap starts 2 words after the bombs of a 9x9 board, and the flagged bitmap 2 words after that
+         */
+        assertCorrupt(corrupt(buffer -> {
+            int opened = SavedGame.HEADER_BYTES + 2 * 8, flagged = opened + 2 * 8;
+            long cell = Long.lowestOneBit(buffer.getLong(opened));
+            buffer.putLong(flagged, buffer.getLong(flagged) | cell);
+        }));
+    }
+
+    @Test
+    void truncatedFileIsCorrupt() throws IOException {
+
+        Path file = corrupt(buffer -> {
+        });
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertCorrupt(file);
+    }
+
+    /**
+     * writes a 9x9 game with its bombs placed, then changes its bytes
+     */
+    private Path corrupt(Consumer<ByteBuffer> change) throws IOException {
+
+        Board board = new Board(9, 9, 10, 3, false);
+        board.placeBombs(4, 4);
+        board.openSafeCell(4, 4);
+
+        Path file = Files.createTempFile(directory, "corrupt", ".save");
+        new SavedGame(board, 0).write(file);
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        change.accept(buffer);
+        Files.write(file, buffer.array());
+
+        return file;
+    }
+
+    private static void assertCorrupt(Path file) {
+
+        IOException e = assertThrows(IOException.class, () -> SavedGame.read(file));
+        assertTrue(e.getMessage().startsWith("corrupt saved game"), e.getMessage());
+    }
+
+}
@@ -0,0 +1,36 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * checks that the boards of all of the sessions are held to the total cells allowed,
+ * and that closing a session gives its cells back
+ */
+class SessionManagerTest {
+
+    @Test
+    void totalCellsAreLimited() {
+
+        /**
+         * room for two expert boards of 480 cells, but not a third
+         */
+        SessionManager sessions = new SessionManager(100, 1000, 1000);
+
+        long first = sessions.create(GameConfig.EXPERT, 1);
+        sessions.create(GameConfig.EXPERT, 2);
+
+        assertEquals(960, sessions.cells());
+        assertThrows(IllegalStateException.class, () -> sessions.create(GameConfig.EXPERT, 3));
+        assertEquals(2, sessions.size());
+        assertEquals(960, sessions.cells());
+
+        sessions.close(first);
+        sessions.create(GameConfig.EXPERT, 4);
+
+        assertEquals(960, sessions.cells());
+    }
+
+}
@@ -0,0 +1,253 @@
+package minesweeper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * plays boards as far as the solver can take them, and checks that it only ever deduces what is true,
+ * and gets exactly as far as the same rules applied a cell at a time - on boards whose rows do and do not
+ * line up with the words of its bitmaps
+ */
+class SolverTest {
+
+    @Test
+    void solverMatchesRulesAppliedCellByCell() {
+
+        SplittableRandom random = new SplittableRandom(3);
+
+        int[][] sizes = {{1, 1}, {1, 70}, {70, 1}, {5, 5}, {16, 30}, {30, 64}, {64, 65}, {65, 130}, {100, 127}};
+
+        for (int[] size : sizes) {
+            for (int round = 0; round < 6; round++) {
+
+                int rows = size[0], columns = size[1];
+                long seed = random.nextLong();
+                int numBombs = (int) (rows * columns * (0.1 + 0.05 * round));
+
+                Board played = open(rows, columns, numBombs, seed);
+                Board reference = open(rows, columns, numBombs, seed);
+
+                Solver solver = new Solver(played);
+                solve(played, solver);
+                solver.detach();
+
+                byte[] known = solveCellByCell(reference);
+
+                BoardState state = played.getState();
+                String where = rows + "x" + columns + " with seed " + seed;
+
+                for (int i = 0; i < state.size(); i++) {
+
+                    assertEquals(reference.getState().isOpened(i), state.isOpened(i), "opened " + i + " on " + where);
+
+                    if (solver.getKnowledge(i) == Solver.BOMB) {
+                        assertTrue(state.isBomb(i), "deduced bomb " + i + " on " + where);
+                    } else if (solver.getKnowledge(i) == Solver.SAFE) {
+                        assertFalse(state.isBomb(i), "deduced safe " + i + " on " + where);
+                    }
+
+                    if (!state.isOpened(i)) {
+                        assertEquals(known[i], solver.getKnowledge(i), "knowledge of " + i + " on " + where);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * a board opened in the middle, and at a few other cells without bombs around them
+     */
+    private static Board open(int rows, int columns, int numBombs, long seed) {
+
+        Board board = new Board(rows, columns, numBombs, seed);
+        board.placeBombs(rows / 2, columns / 2);
+        board.openSafeCell(rows / 2, columns / 2);
+
+        BoardState state = board.getState();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        for (int click = 0; click < state.size() / 200; click++) {
+
+            int i = random.nextInt(state.size());
+
+            if (!state.isBomb(i) && state.getClue(i) == 0) {
+                board.openSafeCell(i / columns, i % columns);
+            }
+        }
+
+        return board;
+    }
+
+    private static void solve(Board board, Solver solver) {
+
+        int columns = board.getColumns();
+
+        do {
+            for (int i = solver.nextBombCell(); i != -1; i = solver.nextBombCell()) {
+                board.flag(i / columns, i % columns);
+            }
+            for (int i = solver.nextSafeCell(); i != -1; i = solver.nextSafeCell()) {
+                board.openSafeCell(i / columns, i % columns);
+            }
+        } while (solver.deduce());
+    }
+
+    /**
+     * applies the single clue rules and the pair rules to every clue, a cell at a time, opening every cell found
+     * to be safe, until nothing changes
+     *
+     * @return what is known about every cell, as Solver.getKnowledge gives it
+     */
+    private static byte[] solveCellByCell(Board board) {
+
+        BoardState state = board.getState();
+        int rows = state.getRows(), columns = state.getColumns();
+        byte[] known = new byte[state.size()];
+
+        boolean changed = true;
+
+        while (changed) {
+
+            changed = false;
+
+            for (int a = 0; a < state.size(); a++) {
+
+                if (!state.isOpened(a) || state.isBomb(a)) {
+                    continue;
+                }
+
+                int ra = a / columns, ca = a % columns;
+
+                for (int rb = Math.max(ra - 2, 0); rb <= Math.min(ra + 2, rows - 1); rb++) {
+                    for (int cb = Math.max(ca - 2, 0); cb <= Math.min(ca + 2, columns - 1); cb++) {
+
+                        int b = rb * columns + cb;
+
+                        if (state.isOpened(b) && !state.isBomb(b)) {
+                            changed |= apply(board, known, a, b);
+                        }
+                    }
+                }
+            }
+        }
+
+        return known;
+    }
+
+    /**
+     * the single clue rules for a clue when b is a, otherwise the pair rules for b's cells which a does not share
+     */
+    private static boolean apply(Board board, byte[] known, int a, int b) {
+
+        BoardState state = board.getState();
+        int columns = state.getColumns();
+
+        int[] cellsA = unknownAround(state, known, a);
+        int[] cellsB = unknownAround(state, known, b);
+
+        int shared = 0;
+
+        for (int i : cellsB) {
+            shared += contains(cellsA, i) ? 1 : 0;
+        }
+
+        int only = cellsB.length - shared;
+
+        int aLeft = state.getClue(a) - bombsAround(state, known, a);
+        int bLeft = state.getClue(b) - bombsAround(state, known, b);
+
+        byte kind;
+
+        if (a == b) {
+            if (cellsA.length == 0 || aLeft != 0 && aLeft != cellsA.length) {
+                return false;
+            }
+            kind = aLeft == 0 ? Solver.SAFE : Solver.BOMB;
+        } else {
+            if (shared == 0 || only == 0) {
+                return false;
+            }
+            if (bLeft - Math.min(shared, aLeft) == only) {
+                kind = Solver.BOMB;
+            } else if (bLeft - Math.max(0, aLeft - (cellsA.length - shared)) == 0) {
+                kind = Solver.SAFE;
+            } else {
+                return false;
+            }
+        }
+
+        for (int i : cellsB) {
+
+            if (a == b || !contains(cellsA, i)) {
+
+                known[i] = kind;
+
+                if (kind == Solver.SAFE) {
+                    board.openSafeCell(i / columns, i % columns);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static int[] unknownAround(BoardState state, byte[] known, int index) {
+
+        int[] cells = new int[8];
+        int count = 0;
+
+        int columns = state.getColumns();
+        int r = index / columns, c = index % columns;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int i = newR * columns + newC;
+
+                if (!state.isOpened(i) && known[i] == Solver.UNKNOWN) {
+                    cells[count++] = i;
+                }
+            }
+        }
+
+        return Arrays.copyOf(cells, count);
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+
+        for (int i : cells) {
+            if (i == cell) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int bombsAround(BoardState state, byte[] known, int index) {
+
+        int columns = state.getColumns();
+        int r = index / columns, c = index % columns;
+        int bombs = 0;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, columns - 1); newC++) {
+
+                int i = newR * columns + newC;
+
+                if (!state.isOpened(i) && known[i] == Solver.BOMB) {
+                    bombs++;
+                }
+            }
+        }
+
+        return bombs;
+    }
+
+}
@@ -0,0 +1,33 @@
+package minesweeper;
+
+/**
+ * helpers shared by the benchmarks
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static Board newBoard(int size, double density) {
+        return newBoard(size, density, 0);
+    }
+
+    /**
+     * makes a square board with its bombs placed around a first click in the middle
+     *
+     * @param size    the rows and columns of the board
+     * @param density the fraction of the cells outside of the first click's area which are bombs
+     * @param seed    the seed of the board
+     * @return the board
+     */
+    static Board newBoard(int size, double density, long seed) {
+
+        int bombs = (int) (density * Math.max(size * size - 9, 0));
+
+        Board board = new Board(size, size, bombs, seed);
+        board.placeBombs(size / 2, size / 2);
+
+        return board;
+    }
+
+}
@@ -0,0 +1,125 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the board queries which are made after every turn, on boards from 9x9 up to 4096x4096,
+ * both on the packed board (bytes) and on the Cell[][] it replaced (objects, see ObjectBoard)
+ * <p>
+ * newBoard makes an empty board, so the gc.alloc.rate.norm which -prof gc prints for it, divided by size * size,
+ * is the bytes each cell takes up
+ * <p>
+ * run with: java -jar jmh/target/benchmarks.jar BoardBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BoardBenchmark {
+
+    @Param({"9", "64", "512", "4096"})
+    private int size;
+
+    @Param({"0.01", "0.15"})
+    private double density;
+
+    @Param({"bytes", "objects"})
+    private String layout;
+
+    private Board board;
+    /**
+     * the same board as a Cell[][], for the objects layout, otherwise null
+     */
+    private ObjectBoard objects;
+    /**
+     * a cell with a clue, whose bombs are all flagged so that it can be swept
+     */
+    private int sweepR, sweepC;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        board = Benchmarks.newBoard(size, density);
+
+        BoardState state = board.getState();
+        sweepR = size / 2;
+        sweepC = size / 2;
+
+        for (int i = 0; i < state.size(); i++) {
+            if (!state.isBomb(i) && state.getClue(i) > 0) {
+                sweepR = i / size;
+                sweepC = i % size;
+                break;
+            }
+        }
+
+        for (int r = Math.max(sweepR - 1, 0); r <= Math.min(sweepR + 1, size - 1); r++) {
+            for (int c = Math.max(sweepC - 1, 0); c <= Math.min(sweepC + 1, size - 1); c++) {
+                if (board.isBomb(r, c)) {
+                    board.flag(r, c);
+                }
+            }
+        }
+
+        board.openSafeCell(sweepR, sweepC);
+
+        if (layout.equals("objects")) {
+            objects = new ObjectBoard(board);
+        }
+    }
+
+    /**
+     * makes an empty board, for the bytes it takes up
+     */
+    @Benchmark
+    public Object newBoard() {
+        return objects == null ? new Board(size, size, 0, 0) : new ObjectBoard(size, size);
+    }
+
+    /**
+     * reads the clue of every cell on the board
+     */
+    @Benchmark
+    public int getNumBombsAdjacent() {
+
+        int total = 0;
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                total += objects == null ? board.getNumBombsAdjacent(r, c) : objects.getNumBombsAdjacent(r, c);
+            }
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public boolean allButBombsOpened() {
+        return objects == null ? board.allButBombsOpened() : objects.allButBombsOpened();
+    }
+
+    @Benchmark
+    public int numCellsFlagged() {
+        return objects == null ? board.numCellsFlagged() : objects.numCellsFlagged();
+    }
+
+    /**
+     * sweeps a cell whose bombs are flagged, after the first invocation its neighbours are already opened
+     */
+    @Benchmark
+    public Object sweep() {
+
+        if (objects != null) {
+            objects.sweep(sweepR, sweepC);
+            return objects;
+        }
+
+        board.sweep(sweepR, sweepC);
+        return board;
+    }
+
+}
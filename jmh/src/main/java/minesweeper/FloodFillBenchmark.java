@@ -0,0 +1,167 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the operations which open large parts of a board at once, each on a freshly placed board -
+ * the flood fill from a first click, and revealing everything at the end of a game
+ * <p>
+ * each is run reading the clues which the board state keeps (table), and working out the clue of every cell it opens
+ * by counting the bombs around it, as was done before the board state kept them (scan) - the clues worked out are
+ * written to an array of their own, as they were once set on each cell
+ * <p>
+ * the primary result is boards opened per second, and the cells opened per second are printed
+ * as the secondary result cellsOpened
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FloodFillBenchmark {
+
+    @Param({"9", "64", "512", "4096"})
+    private int size;
+
+    @Param({"0.0", "0.01", "0.15"})
+    private double density;
+
+    @Param({"table", "scan"})
+    private String clues;
+
+    private Board board;
+    private BoardState state;
+    /**
+     * the clues worked out by the scan, and the stack of its flood fill
+     */
+    private byte[] scanned;
+    private int[] stack = new int[64];
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+
+        board = Benchmarks.newBoard(size, density);
+        state = board.getState();
+
+        if (clues.equals("scan")) {
+            scanned = new byte[state.size()];
+        }
+    }
+
+    /**
+     * counts the cells opened by every invocation, which JMH divides by the time taken
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Opened {
+
+        public long cellsOpened;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cellsOpened = 0;
+        }
+    }
+
+    @Benchmark
+    public int openSafeCell(Opened opened) {
+
+        if (scanned == null) {
+            board.openSafeCell(size / 2, size / 2);
+        } else {
+            openByScan(state.index(size / 2, size / 2));
+        }
+
+        opened.cellsOpened += state.getNumOpenedSafe();
+
+        return state.getNumOpenedSafe();
+    }
+
+    @Benchmark
+    public Board revealEverything(Opened opened) {
+
+        board.revealEverything();
+
+        opened.cellsOpened += state.size();
+
+        if (scanned != null) {
+            for (int i = 0; i < state.size(); i++) {
+                if (!state.isBomb(i)) {
+                    scanned[i] = (byte) scanClue(i);
+                }
+            }
+        }
+
+        return board;
+    }
+
+    /**
+     * Board.openSafeCell, with the clue of each cell counted as it is opened
+     */
+    private void openByScan(int start) {
+
+        state.open(start);
+        scanned[start] = (byte) scanClue(start);
+
+        int size = 0;
+        stack[size++] = start;
+
+        while (size > 0) {
+
+            int cell = stack[--size];
+
+            if (scanned[cell] != 0) {
+                continue;
+            }
+
+            int cellR = cell / state.getColumns();
+            int cellC = cell % state.getColumns();
+
+            for (int newR = Math.max(cellR - 1, 0); newR <= Math.min(cellR + 1, state.getRows() - 1); newR++) {
+                for (int newC = Math.max(cellC - 1, 0); newC <= Math.min(cellC + 1, state.getColumns() - 1); newC++) {
+
+                    int newI = state.index(newR, newC);
+
+                    if (!state.isOpened(newI) && !state.isBomb(newI) && !state.isFlagged(newI)) {
+
+                        state.open(newI);
+                        scanned[newI] = (byte) scanClue(newI);
+
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, size * 2);
+                        }
+                        stack[size++] = newI;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * counts the bombs around a cell
+     */
+    private int scanClue(int index) {
+
+        int r = index / state.getColumns();
+        int c = index % state.getColumns();
+        int bombs = 0;
+
+        for (int newR = Math.max(r - 1, 0); newR <= Math.min(r + 1, state.getRows() - 1); newR++) {
+            for (int newC = Math.max(c - 1, 0); newC <= Math.min(c + 1, state.getColumns() - 1); newC++) {
+
+                int newI = state.index(newR, newC);
+
+                if (newI != index && state.isBomb(newI)) {
+                    bombs++;
+                }
+            }
+        }
+
+        return bombs;
+    }
+
+}
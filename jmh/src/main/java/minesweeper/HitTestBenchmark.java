@@ -0,0 +1,44 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+import processing.core.PApplet;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks turning the mouse's location into a HumanPlayer's turn, which should not depend on the size of the board
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitTestBenchmark {
+
+    @Param({"9", "64", "512", "4096"})
+    private int size;
+
+    private Board board;
+    private HumanPlayer player;
+    private PApplet p;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        p = new PApplet();
+        board = new Board(size, size, 0, 0);
+        BoardRenderer renderer = new BoardRenderer(p, board, 500, 500);
+        player = new HumanPlayer(p, renderer);
+
+        p.mouseButton = PApplet.RIGHT;
+        p.mouseX = 250;
+        p.mouseY = 250;
+    }
+
+    @Benchmark
+    public Turn getTurn() {
+        return player.getTurn(board);
+    }
+
+}
@@ -0,0 +1,106 @@
+package minesweeper;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks counting the bombs around every cell of a grid of about a million cells, across grid widths -
+ * a cell at a time, a row of bits at a time (as NeighbourCounts does), and with the Vector API over rows of bytes
+ * <p>
+ * the narrow widths show where NeighbourCounts.SWAR_COLUMNS should be, as the bits are set up again for every row.
+ * The Vector API is still incubating in Java 17, so it is only tried here, on a grid of a byte per cell with a ring of
+ * empty cells around it so that no lane needs a bounds check - which is made once, before the benchmark, whereas the
+ * board only keeps bits of its bombs, so the engine would have to build that grid every time to count this way
+ * <p>
+ * run with: java -jar jmh/target/benchmarks.jar NeighbourCountBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class NeighbourCountBenchmark {
+
+    private static final int CELLS = 1 << 20;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    @Param({"1", "2", "4", "16", "64", "100", "1024", "8192"})
+    private int width;
+
+    private int rows;
+    private long[] bitmap;
+    private byte[] padded;
+    private byte[] out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        rows = CELLS / width;
+        bitmap = new long[(rows * width + 63) >>> 6];
+        padded = new byte[(rows + 2) * (width + 2)];
+        out = new byte[rows * width];
+
+        SplittableRandom random = new SplittableRandom(0);
+
+        for (int i = 0; i < rows * width; i++) {
+            if (random.nextDouble() < 0.15) {
+                bitmap[i >>> 6] |= 1L << i;
+                padded[(i / width + 1) * (width + 2) + i % width + 1] = 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] scalar() {
+        NeighbourCounts.countScalar(bitmap, rows, width, 0, rows * width, out);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] swar() {
+        NeighbourCounts.countSwar(bitmap, rows, width, 0, rows * width, out);
+        return out;
+    }
+
+    @Benchmark
+    public byte[] vector() {
+
+        int stride = width + 2;
+        int bound = BYTES.loopBound(width);
+
+        for (int r = 0; r < rows; r++) {
+
+            /**
+             * the neighbours of cell c are at c, c + 1 and c + 2 of the padded rows above, at and below it
+             */
+            int above = r * stride, row = above + stride, below = row + stride;
+            int c = 0;
+
+            for (; c < bound; c += BYTES.length()) {
+                ByteVector.fromArray(BYTES, padded, above + c)
+                        .add(ByteVector.fromArray(BYTES, padded, above + c + 1))
+                        .add(ByteVector.fromArray(BYTES, padded, above + c + 2))
+                        .add(ByteVector.fromArray(BYTES, padded, row + c))
+                        .add(ByteVector.fromArray(BYTES, padded, row + c + 2))
+                        .add(ByteVector.fromArray(BYTES, padded, below + c))
+                        .add(ByteVector.fromArray(BYTES, padded, below + c + 1))
+                        .add(ByteVector.fromArray(BYTES, padded, below + c + 2))
+                        .intoArray(out, r * width + c);
+            }
+
+            for (; c < width; c++) {
+                out[r * width + c] = (byte) (padded[above + c] + padded[above + c + 1] + padded[above + c + 2]
+                        + padded[row + c] + padded[row + c + 2]
+                        + padded[below + c] + padded[below + c + 1] + padded[below + c + 2]);
+            }
+        }
+
+        return out;
+    }
+
+}
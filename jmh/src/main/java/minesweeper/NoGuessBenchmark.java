@@ -0,0 +1,54 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks finding a board which can be solved without guessing, for an expert board and a much larger one
+ * at the same density, run on pools of 1 and 4 threads - a pool of one thread tries the seeds one by one
+ * (which needs as many cores as threads to show anything)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class NoGuessBenchmark {
+
+    @Param({"30x16x99", "200x200x8000"})
+    private String board;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private int rows, columns, bombs;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        String[] parts = board.split("x");
+
+        rows = Integer.parseInt(parts[0]);
+        columns = Integer.parseInt(parts[1]);
+        bombs = Integer.parseInt(parts[2]);
+
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long[] layout() {
+        long boardSeed = seed++;
+        return pool.submit(() -> NoGuessGenerator.layout(rows, columns, bombs, boardSeed, rows / 2, columns / 2)).join();
+    }
+
+}
@@ -0,0 +1,186 @@
+package minesweeper;
+
+/**
+ * the board as it was stored before BoardState, an object per cell in a Cell[][] which is told apart with instanceof,
+ * kept only as a baseline for BoardBenchmark to measure the packed board against
+ * <p>
+ * the cells have the same fields as they did then, with the sketch each cell held on to as a plain Object,
+ * so that each takes up as much memory as it did, and the queries work as they did - by scanning the cells
+ */
+final class ObjectBoard {
+
+    private final Cell[][] cells;
+
+    /**
+     * @param rows    the rows of the board
+     * @param columns the columns of the board
+     */
+    ObjectBoard(int rows, int columns) {
+
+        cells = new Cell[rows][columns];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                cells[r][c] = new SafeCell();
+            }
+        }
+    }
+
+    /**
+     * copies a board's bombs, opened cells and flags, so that both boards answer every query the same
+     */
+    ObjectBoard(Board board) {
+
+        this(board.getRows(), board.getColumns());
+
+        for (int r = 0; r < cells.length; r++) {
+            for (int c = 0; c < cells[r].length; c++) {
+
+                if (board.isBomb(r, c)) {
+                    cells[r][c] = new BombCell();
+                } else if (board.isOpened(r, c)) {
+                    ((SafeCell) cells[r][c]).clue = board.getClue(r, c);
+                }
+
+                cells[r][c].opened = board.isOpened(r, c);
+                cells[r][c].flagged = board.isFlagged(r, c);
+            }
+        }
+    }
+
+    int numCellsFlagged() {
+
+        int flagged = 0;
+
+        for (int r = 0; r < cells.length; r++) {
+            for (int c = 0; c < cells[r].length; c++) {
+                if (cells[r][c].flagged) {
+                    flagged++;
+                }
+            }
+        }
+
+        return flagged;
+    }
+
+    boolean allButBombsOpened() {
+
+        boolean allSafeOpened = true;
+        boolean allBombsClosed = true;
+
+        for (int r = 0; r < cells.length; r++) {
+            for (int c = 0; c < cells[r].length; c++) {
+
+                if (cells[r][c] instanceof SafeCell) {
+                    if (!cells[r][c].opened) {
+                        allSafeOpened = false;
+                    }
+                } else if (cells[r][c] instanceof BombCell) {
+                    if (cells[r][c].opened) {
+                        allBombsClosed = false;
+                    }
+                }
+            }
+        }
+
+        return allSafeOpened && allBombsClosed;
+    }
+
+    int getNumBombsAdjacent(int r, int c) {
+
+        int bombs = 0;
+
+        for (int newR = r - 1; newR <= r + 1; newR++) {
+            for (int newC = c - 1; newC <= c + 1; newC++) {
+                if (newR >= 0 && newR < cells.length && newC >= 0 && newC < cells[newR].length
+                        && !(newR == r && newC == c) && cells[newR][newC] instanceof BombCell) {
+                    bombs++;
+                }
+            }
+        }
+
+        return bombs;
+    }
+
+    /**
+     * opens a safe cell, working out its clue as it is opened, and recursing into the cells around a zero clue
+     */
+    void openSafeCell(int r, int c) {
+
+        if (!(cells[r][c] instanceof SafeCell) || cells[r][c].flagged) {
+            return;
+        }
+
+        SafeCell cell = (SafeCell) cells[r][c];
+        cell.clue = getNumBombsAdjacent(r, c);
+        cell.opened = true;
+
+        if (cell.clue != 0) {
+            return;
+        }
+
+        for (int newR = r - 1; newR <= r + 1; newR++) {
+            for (int newC = c - 1; newC <= c + 1; newC++) {
+                if (newR >= 0 && newR < cells.length && newC >= 0 && newC < cells[newR].length
+                        && !(newR == r && newC == c) && !cells[newR][newC].opened) {
+                    openSafeCell(newR, newC);
+                }
+            }
+        }
+    }
+
+    void sweep(int r, int c) {
+
+        for (int newR = r - 1; newR <= r + 1; newR++) {
+            for (int newC = c - 1; newC <= c + 1; newC++) {
+
+                if (newR < 0 || newR >= cells.length || newC < 0 || newC >= cells[newR].length || (newR == r && newC == c)) {
+                    continue;
+                }
+
+                if (cells[newR][newC] instanceof SafeCell) {
+                    openSafeCell(newR, newC);
+                } else if (!cells[newR][newC].flagged) {
+                    cells[newR][newC].opened = true;
+                }
+            }
+        }
+    }
+
+    private abstract static class Cell {
+
+        /**
+         * the sketch, which every cell used to keep for drawing itself
+         */
+        protected Object p;
+        protected boolean opened;
+        protected boolean flagged;
+        protected int r, g, b;
+
+        Cell(int r, int g, int b) {
+            this.r = r;
+            this.g = g;
+            this.b = b;
+        }
+    }
+
+    private static class SafeCell extends Cell {
+
+        private int clue;
+
+        SafeCell() {
+            super(0, 255, 0);
+        }
+    }
+
+    private static class BombCell extends Cell {
+
+        private int flagA;
+
+        BombCell() {
+            super(0, 255, 0);
+            this.flagA = 255;
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the passes over the whole board which are split into stripes, on boards from 256x256 up to 10^8 cells,
+ * run on pools of 1 up to 8 threads - a pool of one thread runs each pass as one stripe, as a small board would
+ * <p>
+ * every board is split however small it is, so the sizes at which more threads start to win show where
+ * Stripes.PARALLEL_CELLS should be, and the larger sizes show how the passes scale with threads
+ * (which needs as many cores as threads)
+ * <p>
+ * run with: java -jar jmh/target/benchmarks.jar ParallelPassBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dminesweeper.parallelCells=0"})
+public class ParallelPassBenchmark {
+
+    @Param({"256", "512", "1024", "4096", "10000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private BoardState state;
+    private long[] bombs, opened, flagged;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        pool = new ForkJoinPool(threads);
+        state = Benchmarks.newBoard(size, 0.15).getState();
+
+        bombs = state.toBitmap(BoardState.BOMB);
+        opened = new long[bombs.length];
+        flagged = new long[bombs.length];
+    }
+
+    /**
+     * puts the board back to before the reveal
+     */
+    @Setup(Level.Invocation)
+    public void close() {
+        state.restore(bombs, opened, flagged);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BoardState revealAll() {
+        pool.submit(state::revealAll).join();
+        return state;
+    }
+
+    @Benchmark
+    public long[] toBitmap() {
+        return pool.submit(() -> state.toBitmap(BoardState.BOMB)).join();
+    }
+
+    @Benchmark
+    public BoardState restore() {
+        pool.submit(() -> state.restore(bombs, opened, flagged)).join();
+        return state;
+    }
+
+}
@@ -0,0 +1,33 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks making a new board and placing its bombs around a first click, at densities from 1% to 99%
+ * <p>
+ * the gc profiler's allocation per operation, divided by the cells on the board, is the board's bytes per cell
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+    @Param({"9", "64", "512", "4096"})
+    private int size;
+
+    @Param({"0.01", "0.2", "0.5", "0.99"})
+    private double density;
+
+    private long seed;
+
+    @Benchmark
+    public Board placeBombs() {
+        return Benchmarks.newBoard(size, density, seed++);
+    }
+
+}
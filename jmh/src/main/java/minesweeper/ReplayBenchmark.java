@@ -0,0 +1,60 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks stepping back one turn from the end of a long replayed game, with snapshots of varying spacing -
+ * a spacing larger than the game means every step back plays the whole game again from the start
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ReplayBenchmark {
+
+    @Param({"16", "64", "1000000"})
+    private int snapshotInterval;
+
+    private MoveJournal journal;
+    private Replay replay;
+
+    @Setup(Level.Trial)
+    public void record() throws IOException {
+
+        Game game = new Game(new Board(128, 128, 2000, 0));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        MoveJournal.Writer writer = new MoveJournal.Writer(out, game.getBoard());
+        game.addListener(writer);
+
+        AIPlayer player = new AIPlayer(0);
+        player.setStepBudget(100_000);
+
+        while (!game.isOver()) {
+            game.playTurn(player);
+        }
+
+        writer.close();
+        journal = MoveJournal.read(ByteBuffer.wrap(out.toByteArray()));
+        replay = new Replay(journal, snapshotInterval);
+    }
+
+    @Setup(Level.Invocation)
+    public void toEnd() {
+        replay.seek(journal.size());
+    }
+
+    @Benchmark
+    public Game stepBack() {
+        replay.stepBack();
+        return replay.getGame();
+    }
+
+}
@@ -0,0 +1,55 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks saving a part played board to a file and loading it back, at several sizes -
+ * see SavedGameTest for the checks that what is loaded matches what was saved
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SavedGameBenchmark {
+
+    @Param({"64", "512", "4096", "8192"})
+    private int size;
+
+    private SavedGame game;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        Board board = Benchmarks.newBoard(size, 0.15);
+        board.openSafeCell(size / 2, size / 2);
+        board.flag(0, 0);
+
+        game = new SavedGame(board, 12345);
+        file = Files.createTempFile("minesweeper", ".save");
+        game.write(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        game.write(file);
+    }
+
+    @Benchmark
+    public SavedGame load() throws IOException {
+        return SavedGame.read(file);
+    }
+
+}
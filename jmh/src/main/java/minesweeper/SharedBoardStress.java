@@ -0,0 +1,209 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * hammers a SharedBoard from many threads at once, checking after every round that its invariants held:
+ * <ul>
+ * <li>flood fills which run into each other open exactly the cells the same fills open one after the other</li>
+ * <li>every cell is opened by exactly one call, however many threads try</li>
+ * <li>setting or clearing the same flag from every thread changes it exactly once</li>
+ * <li>no cell is ever both opened and flagged, however opening and flagging race</li>
+ * <li>the counts match the cells once the threads are done</li>
+ * </ul>
+ * run with java -cp jmh/target/benchmarks.jar minesweeper.SharedBoardStress [rounds] [threads]
+ */
+public class SharedBoardStress {
+
+    private static final int SIZE = 512;
+    private static final int CLICKS = 256;
+
+    private final int threads;
+    private int failures;
+
+    private SharedBoardStress(int threads) {
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        SharedBoardStress stress = new SharedBoardStress(threads);
+
+        for (int round = 0; round < rounds; round++) {
+            stress.floodFills(round);
+            stress.flags(round);
+            stress.openAgainstFlag(round);
+        }
+
+        System.out.println(rounds + " rounds on " + threads + " threads, " + stress.failures + " failures");
+
+        if (stress.failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * every thread clicks the same cells in its own order
+     */
+    private void floodFills(long seed) throws Exception {
+
+        Board board = Benchmarks.newBoard(SIZE, 0.08, seed);
+        SharedBoard shared = new SharedBoard(board);
+
+        int[] clicks = new SplittableRandom(seed).ints(CLICKS, 0, SIZE * SIZE).toArray();
+        AtomicInteger opened = new AtomicInteger(shared.getNumOpenedSafe());
+
+        race(thread -> {
+
+            SplittableRandom random = new SplittableRandom(seed * 31 + thread);
+
+            for (int j = 0; j < clicks.length; j++) {
+                int click = clicks[random.nextInt(clicks.length)];
+                opened.addAndGet(shared.openSafeCell(click / SIZE, click % SIZE));
+            }
+            for (int click : clicks) {
+                opened.addAndGet(shared.openSafeCell(click / SIZE, click % SIZE));
+            }
+        });
+
+        for (int click : clicks) {
+            board.openSafeCell(click / SIZE, click % SIZE);
+        }
+
+        for (int i = 0; i < shared.size(); i++) {
+            check(shared.isOpened(i) == board.getState().isOpened(i), "fills opened a different region, at cell " + i);
+        }
+
+        check(opened.get() == shared.getNumOpenedSafe(), "cells opened by more than one call: "
+                + opened.get() + " opened, " + shared.getNumOpenedSafe() + " counted");
+        checkCounts(shared);
+    }
+
+    /**
+     * every thread flags, then un-flags, the same cells
+     */
+    private void flags(long seed) throws Exception {
+
+        SharedBoard shared = new SharedBoard(Benchmarks.newBoard(SIZE, 0.16, seed));
+
+        int[] cells = new SplittableRandom(seed).ints(4096, 0, SIZE * SIZE).distinct().toArray();
+        AtomicInteger set = new AtomicInteger();
+        AtomicInteger cleared = new AtomicInteger();
+
+        race(thread -> {
+            for (int cell : cells) {
+                if (shared.setFlag(cell)) {
+                    set.incrementAndGet();
+                }
+            }
+        });
+
+        check(set.get() == cells.length && shared.getNumFlagged() == cells.length,
+                "flags set " + set.get() + " times and counted " + shared.getNumFlagged() + " for " + cells.length + " cells");
+
+        race(thread -> {
+            for (int cell : cells) {
+                if (shared.clearFlag(cell)) {
+                    cleared.incrementAndGet();
+                }
+            }
+        });
+
+        check(cleared.get() == cells.length && shared.getNumFlagged() == 0,
+                "flags cleared " + cleared.get() + " times and counted " + shared.getNumFlagged() + " for " + cells.length + " cells");
+        checkCounts(shared);
+    }
+
+    /**
+     * half the threads open cells while the other half flag the same cells
+     */
+    private void openAgainstFlag(long seed) throws Exception {
+
+        SharedBoard shared = new SharedBoard(Benchmarks.newBoard(SIZE, 0.16, seed));
+
+        int[] cells = new SplittableRandom(seed).ints(16384, 0, SIZE * SIZE).toArray();
+
+        race(thread -> {
+            for (int cell : cells) {
+                if (thread % 2 == 0) {
+                    shared.open(cell);
+                } else if (!shared.setFlag(cell)) {
+                    shared.clearFlag(cell);
+                }
+            }
+        });
+
+        checkCounts(shared);
+    }
+
+    /**
+     * runs the same work on every thread, started together so that they overlap as much as possible
+     */
+    private void race(IntConsumer work) throws Exception {
+
+        CyclicBarrier start = new CyclicBarrier(threads);
+        Thread[] running = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+
+            int thread = t;
+
+            running[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                work.accept(thread);
+            });
+            running[t].start();
+        }
+
+        for (Thread thread : running) {
+            thread.join();
+        }
+    }
+
+    /**
+     * checks that no cell is both opened and flagged, and that the counts match the cells
+     */
+    private void checkCounts(SharedBoard shared) {
+
+        int openedSafe = 0, openedBombs = 0, flagged = 0;
+
+        for (int i = 0; i < shared.size(); i++) {
+
+            check(!(shared.isOpened(i) && shared.isFlagged(i)), "cell " + i + " is both opened and flagged");
+
+            if (shared.isOpened(i)) {
+                if (shared.isBomb(i)) {
+                    openedBombs++;
+                } else {
+                    openedSafe++;
+                }
+            }
+            if (shared.isFlagged(i)) {
+                flagged++;
+            }
+        }
+
+        check(openedSafe == shared.getNumOpenedSafe() && openedBombs == shared.getNumOpenedBombs()
+                        && flagged == shared.getNumFlagged(),
+                "counts do not match the cells: " + openedSafe + "/" + shared.getNumOpenedSafe() + ", "
+                        + openedBombs + "/" + shared.getNumOpenedBombs() + ", " + flagged + "/" + shared.getNumFlagged());
+    }
+
+    private void check(boolean held, String message) {
+        if (!held) {
+            failures++;
+            System.out.println("FAILED: " + message);
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package minesweeper;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the solver on large boards which have been opened up in many places, as a long game would be:
+ * <ul>
+ * <li>solve - following the board from the openings and acting on everything deduced until the solver is stuck</li>
+ * <li>deduce - a new solver taking in a board on which it is already stuck, examining every clue once</li>
+ * <li>probabilities - working out the chances of every cell around the frontier of that stuck board, for a guess</li>
+ * </ul>
+ * run with: java -jar jmh/target/benchmarks.jar SolverBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SolverBenchmark {
+
+    @Param({"256", "1024", "2048"})
+    private int size;
+
+    private Board board;
+    private BoardState state;
+    private long[] bombs, opened, flagged, stuckOpened, stuckFlagged;
+
+    /**
+     * a solver which has taken in the stuck board, for working out the chances with
+     */
+    private Solver stuck;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        board = Benchmarks.newBoard(size, 0.15);
+        state = board.getState();
+
+        /**
+         * one opening for every 256 cells, so the frontier runs all over the board
+         */
+        SplittableRandom random = new SplittableRandom(0);
+
+        for (int click = 0; click < size * size / 256; click++) {
+
+            int i = random.nextInt(state.size());
+
+            if (!state.isBomb(i) && state.getClue(i) == 0) {
+                board.openSafeCell(i / size, i % size);
+            }
+        }
+
+        bombs = state.toBitmap(BoardState.BOMB);
+        opened = state.toBitmap(BoardState.OPENED);
+        flagged = state.toBitmap(BoardState.FLAGGED);
+
+        solve();
+
+        stuckOpened = state.toBitmap(BoardState.OPENED);
+        stuckFlagged = state.toBitmap(BoardState.FLAGGED);
+
+        stuck = deduce();
+    }
+
+    @Setup(Level.Invocation)
+    public void reset(BenchmarkParams params) {
+
+        if (params.getBenchmark().endsWith("solve")) {
+            state.restore(bombs, opened, flagged);
+        } else {
+            state.restore(bombs, stuckOpened, stuckFlagged);
+        }
+    }
+
+    @Benchmark
+    public int solve() {
+
+        Solver solver = new Solver(board);
+        int turns = 0;
+
+        do {
+            for (int i = solver.nextBombCell(); i != -1; i = solver.nextBombCell(), turns++) {
+                board.flag(i / size, i % size);
+            }
+            for (int i = solver.nextSafeCell(); i != -1; i = solver.nextSafeCell(), turns++) {
+                board.openSafeCell(i / size, i % size);
+            }
+        } while (solver.deduce());
+
+        solver.detach();
+
+        return turns;
+    }
+
+    @Benchmark
+    public Solver deduce() {
+
+        Solver solver = new Solver(board);
+
+        /**
+         * everything it deduces was acted upon before the board got stuck, so there is nothing to act on
+         */
+        boolean deduced;
+        do {
+            deduced = solver.deduce();
+        } while (deduced);
+
+        solver.detach();
+
+        return solver;
+    }
+
+    @Benchmark
+    public ProbabilityEngine probabilities() {
+
+        ProbabilityEngine probabilities = new ProbabilityEngine(0, 0);
+        probabilities.setStepBudget(1 << 16);
+        probabilities.compute(board, stuck);
+
+        return probabilities;
+    }
+
+}